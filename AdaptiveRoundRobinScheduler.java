@@ -0,0 +1,208 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Adaptive Round Robin Scheduler.
+ * Keeps O(1) estimators of the remaining time of dispatched jobs (EWMA and a
+ * P-square quantile) and feeds back what the last quantum did:
+ * - SWITCH_BUDGET: quantum = remaining-time quantile, scaled so that about
+ *   `target` of all dispatches end in a preemption (context switch budget).
+ * - WAITING_PERCENTILE: quantum = EWMA remaining time, scaled down while the
+ *   chosen waiting-time percentile is above `target` time units and up otherwise.
+ * Waits are measured on a CPU service clock, which equals simulated time
+ * whenever jobs are waiting (the CPU is never idle with a non-empty ReadyQ).
+ * A dispatch that ends in an I/O block is not a preemption, and time spent
+ * in I/O is not ReadyQ wait: the job's wait starts again when it is back.
+ */
+package os.simulator;
+
+import java.nio.ByteBuffer;
+
+public class AdaptiveRoundRobinScheduler implements Scheduler {
+    public static final int SWITCH_BUDGET = 0;
+    public static final int WAITING_PERCENTILE = 1;
+
+    static final int SNAPSHOT_BYTES = 8 * 3 + 8 * 2 + 4 + 4 + StreamingQuantile.SNAPSHOT_BYTES * 2;
+
+    private static final double ALPHA = 0.1;          // EWMA weight of the newest sample
+    private static final double GAIN = 0.05;          // feedback step
+    private static final double MIN_SCALE = 0.25;
+    private static final double MAX_SCALE = 4.0;
+    private static final long IN_IO = -2;             // service mark of a job blocked on I/O
+
+    private final int mode;
+    private final double target;
+    private final double percentile;
+    private final StreamingQuantile remainingQuantile;
+    private final StreamingQuantile waitingQuantile;
+
+    private double remainingEwma;
+    private double preemptRate;
+    private double scale = 1.0;
+    private long serviceClock;
+
+    private Process currentProcess;
+    private Process lastProcess;
+    private long lastRemainingBefore;
+    private int lastBurstIndex;
+    private int timeQuantum;
+
+    /** Default: about 30% of dispatches end in a preemption. */
+    public AdaptiveRoundRobinScheduler() {
+        this(SWITCH_BUDGET, 0.3, 0);
+    }
+
+    /**
+     * @param mode      SWITCH_BUDGET or WAITING_PERCENTILE
+     * @param target    preemptions per dispatch (0-1), or the waiting-time bound
+     * @param percentile waiting percentile (0-1) for WAITING_PERCENTILE; ignored otherwise
+     */
+    public AdaptiveRoundRobinScheduler(int mode, double target, double percentile) {
+        checkSettings(mode, target, percentile);
+        this.mode = mode;
+        this.target = target;
+        this.percentile = percentile;
+        double q = mode == SWITCH_BUDGET ? 1.0 - target : 0.5;
+        this.remainingQuantile = new StreamingQuantile(Math.min(0.99, Math.max(0.01, q)));
+        this.waitingQuantile = new StreamingQuantile(mode == WAITING_PERCENTILE ? percentile : 0.9);
+    }
+
+    static void checkSettings(int mode, double target, double percentile) {
+        if (mode == SWITCH_BUDGET) {
+            if (!(target > 0 && target < 1)) {
+                throw new IllegalArgumentException("Switch budget must be between 0 and 1: " + target);
+            }
+        } else if (mode == WAITING_PERCENTILE) {
+            if (!(target > 0)) {
+                throw new IllegalArgumentException("Waiting-time target must be positive: " + target);
+            }
+            if (!(percentile > 0 && percentile < 1)) {
+                throw new IllegalArgumentException("Waiting percentile must be between 0 and 1: " + percentile);
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown adaptive mode: " + mode);
+        }
+    }
+
+    @Override
+    public void setCurrentProcess(Process process) {
+        this.currentProcess = process;
+    }
+
+    @Override
+    public Process selectNextProcess(Queue readyQueue) {
+        return readyQueue.dequeue();
+    }
+
+    @Override
+    public int getTimeQuantum(Queue readyQueue) {
+        // Feedback from the previous dispatch: CPU time it used, did it get preempted?
+        // (the burst index only moves when the job leaves the CPU for I/O)
+        if (lastProcess != null) {
+            long used = lastRemainingBefore - lastProcess.getRemainingTime();
+            serviceClock += Math.max(0, used);
+            boolean blocked = lastProcess.getBurstIndex() != lastBurstIndex;
+            boolean preempted = !blocked && lastProcess.getRemainingTime() > 0;
+            preemptRate += ALPHA * ((preempted ? 1.0 : 0.0) - preemptRate);
+            if (blocked && lastProcess.getState() == Process.IO_WAIT) {
+                lastProcess.setLastServiceMark(IN_IO);
+            } else {
+                lastProcess.setLastServiceMark(serviceClock);
+            }
+        }
+
+        if (currentProcess == null) {
+            timeQuantum = 1;
+            return timeQuantum;
+        }
+
+        long remaining = currentProcess.getRemainingTime();
+        remainingEwma = remainingQuantile.getCount() == 0
+                ? remaining : remainingEwma + ALPHA * (remaining - remainingEwma);
+        remainingQuantile.add(remaining);
+
+        if (currentProcess.getLastServiceMark() >= 0) {
+            waitingQuantile.add(serviceClock - currentProcess.getLastServiceMark());
+        }
+
+        double base;
+        if (mode == SWITCH_BUDGET) {
+            base = remainingQuantile.getQuantile();
+            scale *= Math.exp(GAIN * (preemptRate - target));
+        } else {
+            base = remainingEwma;
+            boolean tooSlow = waitingQuantile.getCount() > 0 && waitingQuantile.getQuantile() > target;
+            scale *= tooSlow ? 1 - GAIN : 1 + GAIN;
+        }
+        scale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale));
+
+        timeQuantum = (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(base * scale)));
+        lastProcess = currentProcess;
+        lastRemainingBefore = remaining;
+        lastBurstIndex = currentProcess.getBurstIndex();
+        return timeQuantum;
+    }
+
+    // Admitted or back from I/O: its ReadyQ wait starts now, i.e. at the service clock
+    // plus what the last dispatched job has used of its slice so far
+    @Override
+    public void processReady(Process process) {
+        if (process.getLastServiceMark() < 0) {
+            long used = lastProcess == null ? 0 : lastRemainingBefore - lastProcess.getRemainingTime();
+            process.setLastServiceMark(serviceClock + Math.max(0, used));
+        }
+    }
+
+    /**
+     * Take over the estimators of the scheduler a what-if fork was made from,
+     * so the fork's quanta follow the real run. copyOf maps the parent's
+     * processes to the fork's copies.
+     */
+    void copyState(AdaptiveRoundRobinScheduler parent, java.util.function.Function<Process, Process> copyOf) {
+        remainingEwma = parent.remainingEwma;
+        preemptRate = parent.preemptRate;
+        scale = parent.scale;
+        serviceClock = parent.serviceClock;
+        lastRemainingBefore = parent.lastRemainingBefore;
+        lastBurstIndex = parent.lastBurstIndex;
+        remainingQuantile.copyFrom(parent.remainingQuantile);
+        waitingQuantile.copyFrom(parent.waitingQuantile);
+        lastProcess = parent.lastProcess == null ? null : copyOf.apply(parent.lastProcess);
+    }
+
+    // Checkpoint support; the last process is stored as a PrManager snapshot index
+    void writeSnapshot(ByteBuffer buf, int lastProcessIndex) {
+        buf.putDouble(remainingEwma).putDouble(preemptRate).putDouble(scale);
+        buf.putLong(serviceClock).putLong(lastRemainingBefore);
+        buf.putInt(lastProcessIndex).putInt(lastBurstIndex);
+        remainingQuantile.writeSnapshot(buf);
+        waitingQuantile.writeSnapshot(buf);
+    }
+
+    /** Returns the stored last-process index for PrManager to resolve. */
+    int readSnapshot(ByteBuffer buf) {
+        remainingEwma = buf.getDouble();
+        preemptRate = buf.getDouble();
+        scale = buf.getDouble();
+        serviceClock = buf.getLong();
+        lastRemainingBefore = buf.getLong();
+        int lastProcessIndex = buf.getInt();
+        lastBurstIndex = buf.getInt();
+        remainingQuantile.readSnapshot(buf);
+        waitingQuantile.readSnapshot(buf);
+        return lastProcessIndex;
+    }
+
+    Process getLastProcess() { return lastProcess; }
+    void setLastProcess(Process process) { this.lastProcess = process; }
+    int getMode() { return mode; }
+    double getTarget() { return target; }
+    double getPercentile() { return percentile; }
+}
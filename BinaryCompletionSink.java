@@ -0,0 +1,81 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Completion sink writing fixed 40-byte big-endian records:
+ * PID, arrival, completion, turnaround, waiting (5 longs).
+ */
+package os.simulator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class BinaryCompletionSink implements CompletionSink {
+    public static final int RECORD_BYTES = 5 * 8;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_BYTES * 1024);
+
+    public BinaryCompletionSink(String fileName) throws IOException {
+        this(fileName, -1);
+    }
+
+    /**
+     * Continue a file after a resume: it is cut back to `resumeLength` (the
+     * length stored in the checkpoint) and appended to. -1 starts a new file.
+     */
+    public BinaryCompletionSink(String fileName, long resumeLength) throws IOException {
+        if (resumeLength >= 0) {
+            SimulationSnapshot.truncate(Paths.get(fileName), resumeLength, "Completion stream");
+            this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } else {
+            this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+    }
+
+    @Override
+    public void jobCompleted(long PID, long arrivalTime, long completionTime,
+                             long turnaroundTime, long waitingTime) throws IOException {
+        if (buffer.remaining() < RECORD_BYTES) {
+            flush();
+        }
+        buffer.putLong(PID).putLong(arrivalTime).putLong(completionTime)
+                .putLong(turnaroundTime).putLong(waitingTime);
+    }
+
+    // On a failed write the unwritten records stay at the front of the buffer
+    private void flush() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    @Override
+    public long checkpoint() throws IOException {
+        flush();
+        return channel.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
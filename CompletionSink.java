@@ -0,0 +1,40 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Receives one record per finished job as soon as it completes.
+ * When PrManager has a sink, finished jobs are evicted from the process table
+ * unless the sink only observes (evictsFinishedJobs() == false).
+ */
+package os.simulator;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface CompletionSink extends Closeable {
+    void jobCompleted(long PID, long arrivalTime, long completionTime,
+                      long turnaroundTime, long waitingTime) throws IOException;
+
+    /**
+     * False for sinks that only observe completions (e.g. digests); the jobs
+     * then stay in the process table and D output is unchanged.
+     */
+    default boolean evictsFinishedJobs() {
+        return true;
+    }
+
+    /**
+     * Flush buffered records and return the length of the file written so
+     * far. Checkpoints store it so a resumed run can cut the file back to it.
+     */
+    default long checkpoint() throws IOException {
+        throw new IOException(getClass().getSimpleName() + " cannot be checkpointed");
+    }
+}
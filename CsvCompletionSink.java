@@ -0,0 +1,67 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Completion sink writing one CSV line per finished job.
+ */
+package os.simulator;
+
+import java.io.*;
+
+public class CsvCompletionSink implements CompletionSink {
+    private final File file;
+    private final BufferedWriter writer;
+
+    public CsvCompletionSink(String fileName) throws IOException {
+        this(fileName, -1);
+    }
+
+    /**
+     * Continue a file after a resume: it is cut back to `resumeLength` (the
+     * length stored in the checkpoint) and appended to. -1 starts a new file.
+     */
+    public CsvCompletionSink(String fileName, long resumeLength) throws IOException {
+        this.file = new File(fileName);
+        if (resumeLength >= 0) {
+            SimulationSnapshot.truncate(file.toPath(), resumeLength, "Completion stream");
+            this.writer = new BufferedWriter(new FileWriter(file, true), 1 << 16);
+        } else {
+            this.writer = new BufferedWriter(new FileWriter(file), 1 << 16);
+            writer.write("pid,arrival,completion,turnaround,waiting");
+            writer.newLine();
+        }
+    }
+
+    @Override
+    public void jobCompleted(long PID, long arrivalTime, long completionTime,
+                             long turnaroundTime, long waitingTime) throws IOException {
+        writer.write(Long.toString(PID));
+        writer.write(',');
+        writer.write(Long.toString(arrivalTime));
+        writer.write(',');
+        writer.write(Long.toString(completionTime));
+        writer.write(',');
+        writer.write(Long.toString(turnaroundTime));
+        writer.write(',');
+        writer.write(Long.toString(waitingTime));
+        writer.newLine();
+    }
+
+    @Override
+    public long checkpoint() throws IOException {
+        writer.flush();
+        return file.length();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
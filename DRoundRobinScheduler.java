@@ -17,6 +17,11 @@ package os.simulator;
 public class DRoundRobinScheduler implements Scheduler {
     private int timeQuantum;
     private Process currentProcess;
+    private boolean verbose = true;  // print each quantum calculation to stdout
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
 
     @Override
     public void setCurrentProcess(Process process) {
@@ -38,8 +43,9 @@ public class DRoundRobinScheduler implements Scheduler {
             count++;
         }
 
-        for (Process process : readyQueue.getProcesses()) {
-            sr += process.getRemainingTime();
+        Queue.Cursor cursor = readyQueue.cursor();
+        while (cursor.hasNext()) {
+            sr += cursor.next().getRemainingTime();
             count++;
         }
 
@@ -51,8 +57,10 @@ public class DRoundRobinScheduler implements Scheduler {
         long ar = sr / count;
         timeQuantum = (int) Math.max(1, ar);
 
-        System.out.printf("Dynamic RR Calc: SR=%d, Count=%d, AR=%d, Quantum=%d%n",
-                sr, count, ar, timeQuantum);
+        if (verbose) {
+            System.out.printf("Dynamic RR Calc: SR=%d, Count=%d, AR=%d, Quantum=%d%n",
+                    sr, count, ar, timeQuantum);
+        }
 
         return timeQuantum;
     }
@@ -0,0 +1,53 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Completion sink that hashes each record instead of storing it. Records are
+ * the same 40 bytes BinaryCompletionSink writes, so the digest equals the
+ * SHA-256 of an output*.txt.jobs.bin file. Jobs are not evicted.
+ */
+package os.simulator;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
+public class DigestCompletionSink implements CompletionSink {
+    private final MessageDigest digest;
+    private final ByteBuffer record = ByteBuffer.allocate(BinaryCompletionSink.RECORD_BYTES);
+    private long records;
+
+    public DigestCompletionSink(MessageDigest digest) {
+        this.digest = digest;
+    }
+
+    @Override
+    public void jobCompleted(long PID, long arrivalTime, long completionTime,
+                             long turnaroundTime, long waitingTime) {
+        record.clear();
+        record.putLong(PID).putLong(arrivalTime).putLong(completionTime)
+                .putLong(turnaroundTime).putLong(waitingTime);
+        record.flip();
+        digest.update(record);
+        records++;
+    }
+
+    @Override
+    public boolean evictsFinishedJobs() {
+        return false;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Columnar batch of events in primitive arrays (one slot per event; fields
+ * that do not apply to an event type are 0). Events must be added in time
+ * order. Reading is a cursor over the batch; rewind() replays it.
+ */
+package os.simulator;
+
+import java.util.Arrays;
+
+public class EventBatch implements EventSource {
+    private char[] types;
+    private long[] times;
+    private long[] ids;          // PID, or memory size for C
+    private long[] memory;       // memory request
+    private int[] devices;       // device request, or device count for C
+    private long[] burstTimes;
+    private int[] priorities;    // priority, or scheduler type for C
+    private int[] ownerClasses;
+    private long[][] bursts;     // allocated on first B= style arrival
+    private int[][] burstDevices;
+    private int size;
+    private int position = -1;
+
+    public EventBatch() {
+        this(64);
+    }
+
+    public EventBatch(int capacity) {
+        capacity = Math.max(capacity, 1);
+        types = new char[capacity];
+        times = new long[capacity];
+        ids = new long[capacity];
+        memory = new long[capacity];
+        devices = new int[capacity];
+        burstTimes = new long[capacity];
+        priorities = new int[capacity];
+        ownerClasses = new int[capacity];
+    }
+
+    public EventBatch addConfig(long time, long memorySize, int deviceCount, int schedulerType) {
+        int i = append(CONFIG, time);
+        ids[i] = memorySize;
+        devices[i] = deviceCount;
+        priorities[i] = schedulerType;
+        return this;
+    }
+
+    public EventBatch addArrival(long time, long PID, long memoryReq, int devReq,
+                                 long burstTime, int priority) {
+        return addArrival(time, PID, memoryReq, devReq, burstTime, priority, priority);
+    }
+
+    public EventBatch addArrival(long time, long PID, long memoryReq, int devReq,
+                                 long burstTime, int priority, int ownerClass) {
+        int i = append(ARRIVAL, time);
+        ids[i] = PID;
+        memory[i] = memoryReq;
+        devices[i] = devReq;
+        burstTimes[i] = burstTime;
+        priorities[i] = priority;
+        ownerClasses[i] = ownerClass;
+        return this;
+    }
+
+    /**
+     * Arrival with CPU/I-O bursts (cpu, io, ..., cpu); the CPU bursts give the
+     * burst time. The arrays are kept, not copied.
+     */
+    public EventBatch addArrival(long time, long PID, long memoryReq, int devReq, int priority,
+                                 int ownerClass, long[] cpuIoBursts, int[] ioDevices) {
+        if (cpuIoBursts.length % 2 == 0 || ioDevices.length != cpuIoBursts.length / 2) {
+            throw new IllegalArgumentException("Bursts must be cpu, io, ..., cpu with one device per I/O burst");
+        }
+        long cpu = 0;
+        for (int k = 0; k < cpuIoBursts.length; k += 2) cpu += cpuIoBursts[k];
+        addArrival(time, PID, memoryReq, devReq, cpu, priority, ownerClass);
+        if (bursts == null) {
+            bursts = new long[types.length][];
+            burstDevices = new int[types.length][];
+        }
+        bursts[size - 1] = cpuIoBursts;
+        burstDevices[size - 1] = ioDevices;
+        return this;
+    }
+
+    /**
+     * Bulk arrivals from parallel arrays (times in ascending order).
+     */
+    public EventBatch addArrivals(long[] times, long[] PIDs, long[] memoryReqs, int[] devReqs,
+                                  long[] burstTimes, int[] priorities) {
+        for (int i = 0; i < times.length; i++) {
+            addArrival(times[i], PIDs[i], memoryReqs[i], devReqs[i], burstTimes[i], priorities[i]);
+        }
+        return this;
+    }
+
+    public EventBatch addDisplay(long time) {
+        append(DISPLAY, time);
+        return this;
+    }
+
+    private int append(char type, long time) {
+        if (size > 0 && time < times[size - 1]) {
+            throw new IllegalArgumentException("Events must be added in time order: "
+                    + time + " < " + times[size - 1]);
+        }
+        if (size == types.length) grow();
+        types[size] = type;
+        times[size] = time;
+        return size++;
+    }
+
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        times = Arrays.copyOf(times, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        memory = Arrays.copyOf(memory, capacity);
+        devices = Arrays.copyOf(devices, capacity);
+        burstTimes = Arrays.copyOf(burstTimes, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        ownerClasses = Arrays.copyOf(ownerClasses, capacity);
+        if (bursts != null) {
+            bursts = Arrays.copyOf(bursts, capacity);
+            burstDevices = Arrays.copyOf(burstDevices, capacity);
+        }
+    }
+
+    public int size() { return size; }
+
+    /** Start reading from the first event again. */
+    public void rewind() { position = -1; }
+
+    @Override
+    public boolean next() {
+        if (position + 1 >= size) {
+            position = size;
+            return false;
+        }
+        position++;
+        return true;
+    }
+
+    @Override public char getType() { return types[position]; }
+    @Override public long getTime() { return times[position]; }
+    @Override public long getMemorySize() { return ids[position]; }
+    @Override public int getDevices() { return devices[position]; }
+    @Override public int getSchedulerType() { return priorities[position]; }
+    @Override public long getPID() { return ids[position]; }
+    @Override public long getMemoryReq() { return memory[position]; }
+    @Override public int getDevReq() { return devices[position]; }
+    @Override public long getBurstTime() { return burstTimes[position]; }
+    @Override public int getPriority() { return priorities[position]; }
+    @Override public int getOwnerClass() { return ownerClasses[position]; }
+    @Override public long[] getBursts() { return bursts == null ? null : bursts[position]; }
+    @Override public int[] getBurstDevices() { return burstDevices == null ? null : burstDevices[position]; }
+}
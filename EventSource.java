@@ -0,0 +1,54 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * In-memory stream of C/A/D events for HeadlessSimulation, read as a cursor:
+ * call next(), then the getters for the event's type. Implemented by
+ * EventBatch (primitive arrays) and WorkloadGenerator (generated on the fly).
+ */
+package os.simulator;
+
+public interface EventSource {
+    char CONFIG = 'C';
+    char ARRIVAL = 'A';
+    char DISPLAY = 'D';
+
+    /** Advance to the next event. Returns false when there are no more. */
+    boolean next();
+
+    char getType();
+    long getTime();
+
+    // C events
+    long getMemorySize();
+    int getDevices();
+    int getSchedulerType();
+
+    // A events
+    long getPID();
+    long getMemoryReq();
+    int getDevReq();
+    long getBurstTime();
+    int getPriority();
+
+    default int getOwnerClass() {
+        return getPriority();
+    }
+
+    /** CPU/I-O burst sequence (cpu, io, ..., cpu), or null for one CPU burst. */
+    default long[] getBursts() {
+        return null;
+    }
+
+    /** Device of each I/O burst when getBursts() is not null. */
+    default int[] getBurstDevices() {
+        return null;
+    }
+}
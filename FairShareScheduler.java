@@ -0,0 +1,236 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Weighted fair-share (stride) scheduler across owner classes.
+ * Each class has a pass value (virtual time) that grows by CPU used / weight;
+ * the class with the smallest pass runs next, its jobs in FIFO order.
+ * Active classes sit in a heap, so selection is O(log classes) plus an
+ * O(1) removal of the chosen job from ReadyQ.
+ */
+package os.simulator;
+
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+public class FairShareScheduler implements Scheduler {
+    private static final double DEFAULT_WEIGHT = 1.0;
+    private static final int NONE = -1;
+
+    private static final class ClassState {
+        final int id;
+        final double weight;
+        double pass;
+        long cpuTime;
+        final ArrayDeque<Process> jobs = new ArrayDeque<>();
+        boolean inHeap;
+
+        ClassState(int id, double weight) {
+            this.id = id;
+            this.weight = weight;
+        }
+    }
+
+    private final int timeQuantum;
+    private final Map<Integer, ClassState> classes = new HashMap<>();
+    private final PriorityQueue<ClassState> active = new PriorityQueue<>((a, b) -> {
+        int c = Double.compare(a.pass, b.pass);
+        return c != 0 ? c : Integer.compare(a.id, b.id);
+    });
+    private double virtualTime;
+
+    // Job on the CPU since the last selection; charged at the next selection
+    private Process currentProcess;
+    private ClassState lastClass;
+    private Process lastProcess;
+    private long lastRemainingBefore;
+
+    public FairShareScheduler() {
+        this(18, Collections.emptyMap());
+    }
+
+    /**
+     * @param timeQuantum fixed quantum per dispatch
+     * @param weights     class id -> weight (classes not listed get weight 1)
+     */
+    public FairShareScheduler(int timeQuantum, Map<Integer, Double> weights) {
+        this.timeQuantum = timeQuantum;
+        for (Map.Entry<Integer, Double> entry : weights.entrySet()) {
+            classes.put(entry.getKey(), new ClassState(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private ClassState classOf(Process process) {
+        ClassState state = classes.get(process.getOwnerClass());
+        if (state == null) {
+            state = new ClassState(process.getOwnerClass(), DEFAULT_WEIGHT);
+            state.pass = virtualTime;
+            classes.put(state.id, state);
+        }
+        return state;
+    }
+
+    @Override
+    public void processReady(Process process) {
+        ClassState state = classOf(process);
+        state.jobs.addLast(process);
+        if (!state.inHeap && state != lastClass) {
+            // An idle class does not bank credit while it had nothing to run
+            state.pass = Math.max(state.pass, virtualTime);
+            state.inHeap = true;
+            active.add(state);
+        }
+    }
+
+    @Override
+    public Process selectNextProcess(Queue readyQueue) {
+        settleLastDispatch();
+
+        ClassState next = active.poll();
+        if (next == null) {
+            return readyQueue.dequeue();
+        }
+        next.inHeap = false;
+        virtualTime = next.pass;
+
+        Process process = next.jobs.pollFirst();
+        readyQueue.removeProcess(process);
+
+        lastClass = next;
+        lastProcess = process;
+        lastRemainingBefore = process.getRemainingTime();
+        return process;
+    }
+
+    // Charge the previous dispatch to its class and put the class back if it has work
+    private void settleLastDispatch() {
+        if (lastClass == null) return;
+        long used = Math.max(0, lastRemainingBefore - lastProcess.getRemainingTime());
+        lastClass.cpuTime += used;
+        lastClass.pass += used / lastClass.weight;
+        if (!lastClass.jobs.isEmpty()) {
+            lastClass.inHeap = true;
+            active.add(lastClass);
+        }
+        lastClass = null;
+        lastProcess = null;
+    }
+
+    @Override
+    public int getTimeQuantum(Queue readyQueue) {
+        return timeQuantum;
+    }
+
+    @Override
+    public void setCurrentProcess(Process process) {
+        this.currentProcess = process;
+    }
+
+    /**
+     * Per-class CPU time and share (including the job currently on the CPU).
+     */
+    public void displayShares(PrintWriter output) {
+        List<ClassState> sorted = new ArrayList<>(classes.values());
+        sorted.sort(Comparator.comparingInt(s -> s.id));
+
+        long running = lastClass == null ? 0
+                : Math.max(0, lastRemainingBefore - lastProcess.getRemainingTime());
+        long total = running;
+        double totalWeight = 0;
+        for (ClassState s : sorted) {
+            total += s.cpuTime;
+            totalWeight += s.weight;
+        }
+
+        output.println("CPU Share by Class");
+        output.println("--------------------------------------------------------");
+        output.println(" Class    Weight     CPU Time     Share    Target");
+        output.println("--------------------------------------------------------");
+        if (sorted.isEmpty()) {
+            output.println("  EMPTY");
+        }
+        for (ClassState s : sorted) {
+            long cpu = s.cpuTime + (s == lastClass ? running : 0);
+            output.printf(" %-5d %9.2f %12.2f %8.1f%% %8.1f%%%n", s.id, s.weight, (double) cpu,
+                    total == 0 ? 0.0 : 100.0 * cpu / total, 100.0 * s.weight / totalWeight);
+        }
+        output.println();
+        output.println();
+    }
+
+    int getQuantum() { return timeQuantum; }
+
+    Map<Integer, Double> getWeights() {
+        Map<Integer, Double> weights = new HashMap<>();
+        for (ClassState s : classes.values()) {
+            weights.put(s.id, s.weight);
+        }
+        return weights;
+    }
+
+    /**
+     * Take over passes and usage from the parent of a what-if fork, so the
+     * forked baseline schedules like the parent. Call before the fork
+     * replays ReadyQ; copyOf maps parent processes to the fork's copies.
+     */
+    void copyState(FairShareScheduler parent, java.util.function.Function<Process, Process> copyOf) {
+        classes.clear();
+        active.clear();
+        for (ClassState p : parent.classes.values()) {
+            ClassState s = new ClassState(p.id, p.weight);
+            s.pass = p.pass;
+            s.cpuTime = p.cpuTime;
+            classes.put(s.id, s);
+        }
+        virtualTime = parent.virtualTime;
+        lastRemainingBefore = parent.lastRemainingBefore;
+        lastProcess = parent.lastProcess == null ? null : copyOf.apply(parent.lastProcess);
+        lastClass = parent.lastClass == null ? null : classes.get(parent.lastClass.id);
+    }
+
+    // Checkpoint support. Class queues are rebuilt from ReadyQ by PrManager
+    // (processReady in ReadyQ order), so only passes and usage are stored.
+    int snapshotSize() {
+        return 8 + 4 + 8 + 4 + 4 + classes.size() * (4 + 8 + 8 + 8);
+    }
+
+    Process getLastProcess() { return lastProcess; }
+
+    void writeSnapshot(ByteBuffer buf, int lastProcessIndex) {
+        buf.putDouble(virtualTime);
+        buf.putInt(lastProcessIndex);
+        buf.putLong(lastRemainingBefore);
+        buf.putInt(lastClass == null ? NONE : lastClass.id);
+        buf.putInt(classes.size());
+        for (ClassState s : classes.values()) {
+            buf.putInt(s.id).putDouble(s.weight).putDouble(s.pass).putLong(s.cpuTime);
+        }
+    }
+
+    /** Call before replaying ReadyQ through processReady. */
+    void readSnapshot(ByteBuffer buf, Process[] processes) {
+        virtualTime = buf.getDouble();
+        int lastIndex = buf.getInt();
+        lastRemainingBefore = buf.getLong();
+        int lastClassId = buf.getInt();
+        classes.clear();
+        active.clear();
+        int count = buf.getInt();
+        for (int i = 0; i < count; i++) {
+            ClassState s = new ClassState(buf.getInt(), buf.getDouble());
+            s.pass = buf.getDouble();
+            s.cpuTime = buf.getLong();
+            classes.put(s.id, s);
+        }
+        lastProcess = lastIndex == NONE ? null : processes[lastIndex];
+        lastClass = lastClassId == NONE ? null : classes.get(lastClassId);
+    }
+}
@@ -0,0 +1,190 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Embeddable simulation: reads events from an in-memory EventSource and
+ * returns a SimulationResult. No files, no text output, nothing on the console.
+ * The event loop is SimulationController's (min(i,e), internal events first
+ * on ties, dispatch after every event), so per-job records match a text run
+ * of the same trace. D events only count as events; nothing is displayed.
+ *
+ *   EventBatch batch = new EventBatch()
+ *           .addConfig(1, 200, 12, 1)
+ *           .addArrival(3, 1, 20, 5, 10, 1);
+ *   SimulationResult r = new HeadlessSimulation().run(batch);
+ */
+package os.simulator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class HeadlessSimulation {
+    private long maxSimulationTime = 1000000;
+    private long maxIterations = 10000;
+    private boolean recordQueueDepth;
+    private boolean recordMetrics;
+    private Map<Integer, Double> classWeights = Collections.emptyMap();
+    private int adaptiveMode = AdaptiveRoundRobinScheduler.SWITCH_BUDGET;
+    private double adaptiveTarget = 0.3;
+    private double adaptivePercentile;
+
+    /** Same defaults as SimulationController; Long.MAX_VALUE removes a limit. */
+    public HeadlessSimulation setLimits(long maxSimulationTime, long maxIterations) {
+        this.maxSimulationTime = maxSimulationTime;
+        this.maxIterations = maxIterations;
+        return this;
+    }
+
+    /** Also return ReadyQ / hold queue depth over time. */
+    public HeadlessSimulation setRecordQueueDepth(boolean recordQueueDepth) {
+        this.recordQueueDepth = recordQueueDepth;
+        return this;
+    }
+
+    /**
+     * Also keep the SimulationMetrics histograms (turnaround, waiting,
+     * quantum, queue depth percentiles). Off by default: they are the
+     * largest per-run cost for small simulations.
+     */
+    public HeadlessSimulation setRecordMetrics(boolean recordMetrics) {
+        this.recordMetrics = recordMetrics;
+        return this;
+    }
+
+    /** Class weights for the fair-share scheduler (SCHED=4 epochs). */
+    public HeadlessSimulation setClassWeights(Map<Integer, Double> classWeights) {
+        this.classWeights = new HashMap<>(classWeights);
+        return this;
+    }
+
+    /**
+     * Settings of the adaptive scheduler (SCHED=3 epochs), as for
+     * AdaptiveRoundRobinScheduler(mode, target, percentile).
+     */
+    public HeadlessSimulation setAdaptive(int mode, double target, double percentile) {
+        AdaptiveRoundRobinScheduler.checkSettings(mode, target, percentile);
+        this.adaptiveMode = mode;
+        this.adaptiveTarget = target;
+        this.adaptivePercentile = percentile;
+        return this;
+    }
+
+    private Scheduler newScheduler(int schedulerType) {
+        if (schedulerType == SimulationSnapshot.SCHED_FAIR_SHARE) {
+            return new FairShareScheduler(18, classWeights);
+        }
+        if (schedulerType == SimulationSnapshot.SCHED_ADAPTIVE) {
+            return new AdaptiveRoundRobinScheduler(adaptiveMode, adaptiveTarget, adaptivePercentile);
+        }
+        Scheduler scheduler = SimulationSnapshot.newScheduler((byte) schedulerType);
+        if (scheduler instanceof DRoundRobinScheduler) {
+            ((DRoundRobinScheduler) scheduler).setVerbose(false);
+        }
+        return scheduler;
+    }
+
+    // Finished jobs go straight into the result (and leave the process table)
+    private static final class ResultSink implements CompletionSink {
+        private final SimulationResult result;
+
+        ResultSink(SimulationResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public void jobCompleted(long PID, long arrivalTime, long completionTime,
+                                 long turnaroundTime, long waitingTime) {
+            result.addJob(PID, arrivalTime, completionTime, turnaroundTime, waitingTime);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Run every event of the source. The source is consumed.
+     */
+    public SimulationResult run(EventSource events) {
+        SimulationResult result = new SimulationResult(recordQueueDepth, recordMetrics);
+        SimulationMetrics metrics = result.metrics();
+        ResultSink sink = new ResultSink(result);
+
+        PrManager manager = null;
+        long currentTime = 0;
+        long iterations = 0;
+        boolean hasMoreEvents = events.next();
+
+        while ((hasMoreEvents || (manager != null
+                        && (manager.hasInternalEvents() || manager.hasActiveProcesses())))
+                && currentTime < maxSimulationTime
+                && iterations < maxIterations) {
+            iterations++;
+
+            if (hasMoreEvents && events.getType() == EventSource.CONFIG) {
+                if (manager != null) {
+                    result.addEpoch(manager.getCpuBusyTime(), manager.getElapsedTime());
+                }
+                currentTime = events.getTime();
+                OtherKerServices kernel = new OtherKerServices();
+                kernel.initialize(events.getMemorySize(), events.getDevices());
+                manager = new PrManager(newScheduler(events.getSchedulerType()));
+                manager.initialize(kernel);
+                manager.setMetrics(metrics);
+                manager.setCompletionSink(sink);
+                manager.setConsoleLog(false);
+                hasMoreEvents = events.next();
+                continue;
+            }
+
+            if (manager == null) {
+                hasMoreEvents = events.next();
+                continue;
+            }
+
+            long nextInternalTime = manager.getNextDecisionTime();
+            long nextEventTime = hasMoreEvents ? events.getTime() : Long.MAX_VALUE;
+            if (nextInternalTime == Long.MAX_VALUE && !hasMoreEvents) {
+                break; // nothing left that can ever happen
+            }
+
+            if (nextInternalTime <= nextEventTime && nextInternalTime != Long.MAX_VALUE) {
+                currentTime = nextInternalTime;
+                manager.cpuTimeAdvance(currentTime);
+                manager.handleInternalEvent();
+            } else {
+                currentTime = nextEventTime;
+                manager.cpuTimeAdvance(currentTime);
+                if (events.getType() == EventSource.ARRIVAL) {
+                    manager.procArrivingRoutine(currentTime, events.getPID(), events.getMemoryReq(),
+                            events.getDevReq(), events.getBurstTime(), events.getPriority(),
+                            events.getOwnerClass(), events.getBursts(), events.getBurstDevices());
+                }
+                hasMoreEvents = events.next();
+            }
+
+            manager.dispatch();
+            int holdDepth = manager.getHoldDepth();
+            metrics.sampleQueues(currentTime, manager.getReadyQ().size(), holdDepth);
+            result.sampleDepth(currentTime, manager.getReadyQ().size(), holdDepth);
+        }
+
+        boolean workLeft = hasMoreEvents || (manager != null
+                && (manager.hasInternalEvents() || manager.hasActiveProcesses()));
+        boolean limitReached = workLeft
+                && (currentTime >= maxSimulationTime || iterations >= maxIterations);
+        if (manager != null) {
+            result.addEpoch(manager.getCpuBusyTime(), manager.getElapsedTime());
+        }
+        result.finish(currentTime, iterations, limitReached);
+        return result;
+    }
+}
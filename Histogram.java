@@ -0,0 +1,97 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Fixed-size log-linear histogram (HDR-style) for non-negative long values.
+ * Values below 32 are exact; above that each power of two is split into 32
+ * sub-buckets (about 3% relative error). record() never allocates.
+ */
+package os.simulator;
+
+import java.io.PrintWriter;
+
+public class Histogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = 64 - SUB_BITS + 1;
+
+    private final String name;
+    private final long[] counts = new long[BUCKETS * SUB_COUNT];
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public Histogram(String name) {
+        this.name = name;
+    }
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int bucket = msb - SUB_BITS + 1;
+        int sub = (int) (value >>> (msb - SUB_BITS)) - SUB_COUNT;
+        return bucket * SUB_COUNT + sub;
+    }
+
+    // Highest value that lands in the given index
+    private static long highestValueAt(int index) {
+        int bucket = index / SUB_COUNT;
+        int sub = index % SUB_COUNT;
+        if (bucket == 0) {
+            return sub;
+        }
+        int shift = bucket - 1;
+        long lowest = (long) (SUB_COUNT + sub) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Value at the given percentile (0-100); 0 when nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) return 0;
+        long target = (long) Math.ceil(percentile / 100.0 * count);
+        if (target < 1) target = 1;
+
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+        return max;
+    }
+
+    public String getName() { return name; }
+    public long getCount() { return count; }
+    public long getMin() { return count == 0 ? 0 : min; }
+    public long getMax() { return max; }
+    public double getMean() { return count == 0 ? 0.0 : (double) sum / count; }
+
+    public void writeSummary(PrintWriter output) {
+        output.printf("%-24s count=%d min=%d mean=%.2f p50=%d p90=%d p99=%d p99.9=%d max=%d%n",
+                name, count, getMin(), getMean(),
+                getValueAtPercentile(50), getValueAtPercentile(90),
+                getValueAtPercentile(99), getValueAtPercentile(99.9), max);
+    }
+}
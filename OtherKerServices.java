@@ -9,21 +9,70 @@
  */
 /**
  * Kernel services for memory and devices.
- * Handles pre-allocation and total-resource checks.
+ * Handles pre-allocation and total-resource checks, and the I/O service
+ * queues of jobs with CPU/I-O burst sequences.
  */
 package os.simulator;
 
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
 public class OtherKerServices {
     private long memorySize;
     private long availableMemory;
     private int noDevs;
     private int availableDevices;
 
+    // I/O devices 0..noDevs-1 by id. Each serves one request at a time from
+    // a FIFO queue; busy devices sit in a heap by completion time.
+    private static final class IoDevice {
+        final int id;
+        final ArrayDeque<Process> waiting = new ArrayDeque<>(2);   // most devices stay idle
+        Process inService;
+        long serviceStart;
+        long busyUntil;
+        long busyTime;
+        long served;
+
+        IoDevice(int id) {
+            this.id = id;
+        }
+    }
+
+    private IoDevice[] ioDevices = new IoDevice[0];
+    private final PriorityQueue<IoDevice> ioCompletions = new PriorityQueue<>((a, b) -> {
+        int c = Long.compare(a.busyUntil, b.busyUntil);
+        return c != 0 ? c : Integer.compare(a.id, b.id);
+    });
+
     public void initialize(long memory, int devices) {
         this.memorySize = memory;
         this.availableMemory = memory;
         this.noDevs = devices;
         this.availableDevices = devices;
+        installDevices();
+    }
+
+    private void installDevices() {
+        if (ioDevices.length < noDevs) {
+            ioDevices = Arrays.copyOf(ioDevices, noDevs);
+        }
+        for (int id = 0; id < ioDevices.length; id++) {
+            if (ioDevices[id] == null) ioDevices[id] = new IoDevice(id);
+        }
+    }
+
+    // Every I/O burst of the job names a configured device
+    public boolean hasDevicesFor(Process process) {
+        int[] devices = process.getIoDevices();
+        if (devices == null) return true;
+        for (int device : devices) {
+            if (device < 0 || device >= noDevs) return false;
+        }
+        return true;
     }
 
     // Check TOTAL system capacity (for rejection)
@@ -58,6 +107,203 @@ public class OtherKerServices {
         availableDevices += count;
     }
 
+    // ------------------------------------------------------------------
+    // I/O service queues
+    // ------------------------------------------------------------------
+
+    /**
+     * Queue the job's current I/O burst on its device; service starts now
+     * if the device is idle.
+     */
+    public void startIo(Process process, long now) {
+        int id = process.getIoDevice();
+        if (id < 0 || id >= ioDevices.length) {
+            throw new IllegalArgumentException("No I/O device " + id + " (devices 0-" + (noDevs - 1) + ")");
+        }
+        IoDevice device = ioDevices[id];
+        if (device.inService == null) {
+            beginService(device, process, now);
+        } else {
+            device.waiting.addLast(process);
+        }
+    }
+
+    private void beginService(IoDevice device, Process process, long now) {
+        device.inService = process;
+        device.serviceStart = now;
+        device.busyUntil = now + process.getIoBurst();
+        ioCompletions.add(device);
+    }
+
+    public long getNextIoCompletionTime() {
+        IoDevice device = ioCompletions.peek();
+        return device == null ? Long.MAX_VALUE : device.busyUntil;
+    }
+
+    public boolean hasIoInFlight() {
+        return !ioCompletions.isEmpty();
+    }
+
+    /**
+     * Finish the earliest I/O request and return its job. The next request
+     * queued on that device starts at the same instant.
+     */
+    public Process completeIo() {
+        IoDevice device = ioCompletions.poll();
+        Process process = device.inService;
+        device.busyTime += device.busyUntil - device.serviceStart;
+        device.served++;
+        device.inService = null;
+        Process next = device.waiting.pollFirst();
+        if (next != null) {
+            beginService(device, next, device.busyUntil);
+        }
+        return process;
+    }
+
+    /** Device the earliest completion belongs to (for traces). */
+    public int getNextIoDevice() {
+        return ioCompletions.peek().id;
+    }
+
+    // True once any device has taken a request
+    public boolean hasIoDevices() {
+        for (IoDevice device : ioDevices) {
+            if (used(device)) return true;
+        }
+        return false;
+    }
+
+    private static boolean used(IoDevice device) {
+        return device.inService != null || device.served > 0;
+    }
+
+    // Every job in service or queued on a device
+    void forEachIoProcess(Consumer<Process> action) {
+        for (IoDevice device : ioDevices) {
+            if (device.inService != null) action.accept(device.inService);
+            device.waiting.forEach(action);
+        }
+    }
+
+    /**
+     * Per-device queue and utilization over `elapsed` time units up to `now`,
+     * for the devices that have taken a request.
+     */
+    public void displayIoDevices(PrintWriter output, long now, long elapsed) {
+        output.println("I/O Devices");
+        output.println("--------------------------------------------------------");
+        output.println(" Device  In Service  Queued    Busy Time  Utilization   Served");
+        output.println("--------------------------------------------------------");
+        for (IoDevice device : ioDevices) {
+            if (!used(device)) continue;
+            long busy = device.busyTime;
+            if (device.inService != null) busy += Math.max(0, now - device.serviceStart);
+            output.printf(" %-6d  %-10s  %6d  %11.2f  %10.1f%%  %7d%n", device.id,
+                    device.inService == null ? "-" : String.valueOf(device.inService.getPID()),
+                    device.waiting.size(), (double) busy,
+                    elapsed <= 0 ? 0.0 : 100.0 * busy / elapsed, device.served);
+        }
+        output.println();
+    }
+
+    /** Same devices and requests, with every queued job replaced by copyOf(job). */
+    void copyIoFrom(OtherKerServices parent, Function<Process, Process> copyOf) {
+        ioDevices = new IoDevice[Math.max(noDevs, parent.ioDevices.length)];
+        ioCompletions.clear();
+        for (IoDevice p : parent.ioDevices) {
+            IoDevice device = new IoDevice(p.id);
+            device.inService = p.inService == null ? null : copyOf.apply(p.inService);
+            device.serviceStart = p.serviceStart;
+            device.busyUntil = p.busyUntil;
+            device.busyTime = p.busyTime;
+            device.served = p.served;
+            for (Process process : p.waiting) {
+                device.waiting.addLast(copyOf.apply(process));
+            }
+            ioDevices[device.id] = device;
+            if (device.inService != null) ioCompletions.add(device);
+        }
+        installDevices();   // extra devices of a what-if fork
+    }
+
+    // I/O state lives in PrManager's snapshot section, which owns process indexes.
+    // Devices that never took a request are left out.
+    int ioSnapshotSize() {
+        int size = 4;
+        for (IoDevice device : ioDevices) {
+            if (used(device)) size += 4 + 4 + 8 * 4 + 4 + device.waiting.size() * 4;
+        }
+        return size;
+    }
+
+    void writeIoSnapshot(ByteBuffer buf, Map<Process, Integer> index) {
+        int count = 0;
+        for (IoDevice device : ioDevices) {
+            if (used(device)) count++;
+        }
+        buf.putInt(count);
+        for (IoDevice device : ioDevices) {
+            if (!used(device)) continue;
+            buf.putInt(device.id);
+            buf.putInt(device.inService == null ? -1 : index.get(device.inService));
+            buf.putLong(device.serviceStart).putLong(device.busyUntil);
+            buf.putLong(device.busyTime).putLong(device.served);
+            buf.putInt(device.waiting.size());
+            for (Process process : device.waiting) {
+                buf.putInt(index.get(process));
+            }
+        }
+    }
+
+    void readIoSnapshot(ByteBuffer buf, Process[] processes) {
+        ioCompletions.clear();
+        int count = buf.getInt();
+        for (int i = 0; i < count; i++) {
+            IoDevice device = new IoDevice(buf.getInt());
+            int inService = buf.getInt();
+            device.inService = inService < 0 ? null : processes[inService];
+            device.serviceStart = buf.getLong();
+            device.busyUntil = buf.getLong();
+            device.busyTime = buf.getLong();
+            device.served = buf.getLong();
+            int waiting = buf.getInt();
+            for (int j = 0; j < waiting; j++) {
+                device.waiting.addLast(processes[buf.getInt()]);
+            }
+            ioDevices[device.id] = device;
+            if (device.inService != null) ioCompletions.add(device);
+        }
+    }
+
+    /**
+     * Copy for a what-if fork, optionally with extra memory/devices installed.
+     */
+    OtherKerServices fork(long extraMemory, int extraDevices) {
+        OtherKerServices copy = new OtherKerServices();
+        copy.memorySize = memorySize + extraMemory;
+        copy.availableMemory = availableMemory + extraMemory;
+        copy.noDevs = noDevs + extraDevices;
+        copy.availableDevices = availableDevices + extraDevices;
+        return copy;
+    }
+
+    // Checkpoint support (see SimulationSnapshot)
+    static final int SNAPSHOT_BYTES = 8 + 8 + 4 + 4;
+
+    void writeSnapshot(ByteBuffer buf) {
+        buf.putLong(memorySize).putLong(availableMemory);
+        buf.putInt(noDevs).putInt(availableDevices);
+    }
+
+    void readSnapshot(ByteBuffer buf) {
+        memorySize = buf.getLong();
+        availableMemory = buf.getLong();
+        noDevs = buf.getInt();
+        availableDevices = buf.getInt();
+        installDevices();
+    }
+
     // Getters
     public long getAvailableMemory() { return availableMemory; }
     public int getAvailableDevices() { return availableDevices; }
@@ -0,0 +1,145 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Real-time pacing for SimulationController: before each min(i,e) event the
+ * loop waits until wall-clock time (System.nanoTime) catches up with the
+ * event's simulated time, scaled by unitsPerSecond.
+ *
+ * Only the controller anchors the clock: after setting up each C epoch, so
+ * building the kernel and opening files does not count against the
+ * schedule, and where a resumed run picks up. Deadlines are absolute from the anchor, not relative sleeps: a
+ * slow event only delays that event, the next ones run without sleeping
+ * until the clock has caught up, and lateness never accumulates. The wait parks for
+ * most of the gap and spins for the last SPIN_NANOS, because parkNanos alone
+ * wakes up tens of microseconds late.
+ *
+ * Lag is how late an event starts compared with its deadline. Drift is the
+ * lag left at the last event, i.e. how far simulated time ends up behind the
+ * scaled clock.
+ */
+package os.simulator;
+
+import java.io.PrintWriter;
+import java.util.concurrent.locks.LockSupport;
+
+public class PacedClock {
+    private static final long SPIN_NANOS = 100_000;
+    private static final long LATE_NANOS = 1_000_000;   // counted as "late" above 1 ms
+
+    private final double unitsPerSecond;
+    private final double nanosPerUnit;
+
+    private boolean anchored;
+    private long anchorNanos;
+    private long anchorTime;
+    private long lastTime;
+
+    private final Histogram lag = new Histogram("lag ns");
+    private long lateEvents;
+    private long sleptNanos;
+    private long drift;
+    private long anchors;
+
+    // Wall time and simulated time covered, summed over anchors
+    private long wallNanos;
+    private long simulatedUnits;
+
+    public PacedClock(double unitsPerSecond) {
+        if (!(unitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Pace must be positive: " + unitsPerSecond);
+        }
+        this.unitsPerSecond = unitsPerSecond;
+        this.nanosPerUnit = 1e9 / unitsPerSecond;
+    }
+
+    public double getUnitsPerSecond() { return unitsPerSecond; }
+
+    /**
+     * Map the given simulated time to now; later deadlines count from here.
+     */
+    public void anchor(long time) {
+        long now = System.nanoTime();
+        if (anchored) {
+            wallNanos += now - anchorNanos;
+            simulatedUnits += lastTime - anchorTime;
+        }
+        anchored = true;
+        anchorNanos = now;
+        anchorTime = time;
+        lastTime = time;
+        anchors++;
+    }
+
+    /**
+     * Block until the scaled clock reaches the given simulated time. Returns
+     * at once before the first anchor, for Long.MAX_VALUE ("never"), and for
+     * a time before the last one (a C epoch that starts earlier; the caller
+     * anchors it once it is set up).
+     */
+    public void awaitTime(long time) {
+        if (!anchored || time == Long.MAX_VALUE || time < lastTime) return;
+        lastTime = time;
+        long now = System.nanoTime();
+
+        long deadline = anchorNanos + (long) ((time - anchorTime) * nanosPerUnit);
+        long remaining = deadline - now;
+        if (remaining > 0) {
+            long waitStart = now;
+            while (remaining > SPIN_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_NANOS);
+                if (Thread.currentThread().isInterrupted()) break;
+                now = System.nanoTime();
+                remaining = deadline - now;
+            }
+            while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+                Thread.onSpinWait();
+                now = System.nanoTime();
+                remaining = deadline - now;
+            }
+            sleptNanos += now - waitStart;
+        }
+
+        long late = Math.max(0, -remaining);
+        lag.record(late);
+        if (late > LATE_NANOS) lateEvents++;
+        drift = late;
+    }
+
+    public Histogram getLag() { return lag; }
+    public long getLateEvents() { return lateEvents; }
+    public long getDriftNanos() { return drift; }
+    public long getSleptNanos() { return sleptNanos; }
+
+    /** Simulated units per wall-clock second actually achieved. */
+    public double getAchievedRate() {
+        long wall = wallNanos;
+        long simulated = simulatedUnits;
+        if (anchored) {
+            wall += System.nanoTime() - anchorNanos;
+            simulated += lastTime - anchorTime;
+        }
+        return wall <= 0 ? 0.0 : simulated * 1e9 / wall;
+    }
+
+    public void writeReport(PrintWriter output) {
+        output.println("Pacing");
+        output.println("--------------------------------------------------------");
+        output.printf("Requested rate:           %.3f units/s%n", unitsPerSecond);
+        output.printf("Achieved rate:            %.3f units/s%n", getAchievedRate());
+        output.printf("Paced events:             %d%n", lag.getCount());
+        output.printf("Late events (> 1 ms):     %d%n", lateEvents);
+        output.printf("Anchors:                  %d%n", anchors);
+        output.printf("Time asleep:              %.3f ms%n", sleptNanos / 1e6);
+        output.printf("Final drift:              %.3f ms%n", drift / 1e6);
+        lag.writeSummary(output);
+        output.flush();
+    }
+}
@@ -14,7 +14,10 @@
  */
 package os.simulator;
 
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 public class PrManager {
@@ -30,6 +33,25 @@ public class PrManager {
     private long nextDecisionTime;
     private long internalClock;
     private long timeQuantumRemaining;
+    private SimulationMetrics metrics = SimulationMetrics.DISABLED;
+
+    // Streaming completion output; finished jobs are evicted when a sink is set
+    private CompletionSink completionSink;
+    private boolean evictFinished;
+    private long streamedCount;
+    private long streamedTurnaround;
+    private long streamedWaiting;
+
+    // CPU utilization / throughput (shown at D events once jobs do I/O)
+    private long startTime = -1;
+    private long cpuBusyTime;
+    private long completedJobs;
+
+    // Clock when the running job's remaining/quantum were last brought up to date
+    private long chargedUntil;
+
+    private TraceRecorder trace; // null unless timeline tracing is on
+    private boolean consoleLog = true; // REJECTED / error lines on stdout/stderr
 
     // Exposed for simulation controller if needed
     public Queue getReadyQ() { return readyQ; }
@@ -57,17 +79,60 @@ public class PrManager {
         this.kernelServices = kernelServices;
     }
 
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Stream each finished job to the sink and drop it from the process table,
+     * so memory follows in-flight jobs only. D events then print the totals.
+     */
+    public void setCompletionSink(CompletionSink completionSink) {
+        this.completionSink = completionSink;
+        this.evictFinished = completionSink != null && completionSink.evictsFinishedJobs();
+    }
+
+    public void setTraceRecorder(TraceRecorder trace) {
+        this.trace = trace;
+    }
+
+    /** Turn off the REJECTED and error lines printed to the console (embedded use). */
+    public void setConsoleLog(boolean consoleLog) {
+        this.consoleLog = consoleLog;
+    }
+
     /**
      * Handle new arriving job (A event).
      */
     public void procArrivingRoutine(long arrivalTime, long PID, long memoryReq,
                                     int devReq, long burstTime, int priority) {
+        procArrivingRoutine(arrivalTime, PID, memoryReq, devReq, burstTime, priority, priority);
+    }
+
+    public void procArrivingRoutine(long arrivalTime, long PID, long memoryReq,
+                                    int devReq, long burstTime, int priority, int ownerClass) {
+        procArrivingRoutine(arrivalTime, PID, memoryReq, devReq, burstTime, priority, ownerClass,
+                null, null);
+    }
+
+    /**
+     * A event with an explicit owner class (O= field) for fair-share scheduling
+     * and an optional CPU/I-O burst sequence (B= field, null = one CPU burst).
+     * With bursts, burstTime is the sum of the CPU bursts.
+     */
+    public void procArrivingRoutine(long arrivalTime, long PID, long memoryReq,
+                                    int devReq, long burstTime, int priority, int ownerClass,
+                                    long[] bursts, int[] ioDevices) {
         if (PID < 0 || PID >= 100) {
-            System.err.println("ERROR: Invalid PID " + PID + ", must be between 0-99");
+            if (consoleLog) System.err.println("ERROR: Invalid PID " + PID + ", must be between 0-99");
             return;
         }
 
-        Process process = new Process(PID, arrivalTime, memoryReq, devReq, burstTime, priority);
+        Process process = new Process(PID, arrivalTime, memoryReq, devReq, burstTime, priority,
+                ownerClass);
+        if (bursts != null) {
+            process.setBursts(bursts, ioDevices);
+        }
         processTable[(int) PID] = process;
         getSubmitQ().enqueue(process);
         processJobAdmission();
@@ -80,19 +145,28 @@ public class PrManager {
      * 3) If can allocate NOW → send to ReadyQ.
      */
     private void processJobAdmission() {
-        List<Process> toRemove = new ArrayList<>();
-
-        for (Process process : getSubmitQ().getProcesses()) {
-
-            // Case 1: reject if exceeds TOTAL capacity
-            if (!kernelServices.canAllocate(process.getMemoryReq(), process.getDevReq())) {
+        // Every submitted job leaves SubmitQ here; remove in place while iterating
+        Queue.Cursor cursor = getSubmitQ().cursor();
+        while (cursor.hasNext()) {
+            Process process = cursor.next();
+            cursor.remove();
+
+            // Case 1: reject if exceeds TOTAL capacity (or names an I/O device that does not exist)
+            if (!kernelServices.canAllocate(process.getMemoryReq(), process.getDevReq())
+                    || !kernelServices.hasDevicesFor(process)) {
                 process.setState(Process.TERMINATED);
                 process.setCompletionTime(internalClock);
                 process.setRejected(true);       // ****** FIX: mark rejected ******
-                toRemove.add(process);
+                metrics.onRejection();
+                if (trace != null) trace.record(internalClock, TraceRecorder.REJECT, process.getPID(), 0);
 
-                System.out.printf("REJECTED: PID=%d exceeds total system resources%n",
-                        process.getPID());
+                if (consoleLog) {
+                    System.out.printf("REJECTED: PID=%d exceeds total system resources%n",
+                            process.getPID());
+                }
+                if (evictFinished) {
+                    evict(process);
+                }
                 continue;
             }
 
@@ -104,7 +178,10 @@ public class PrManager {
                     getHoldQ2().enqueue(process);
                 }
                 process.setState(Process.HOLD);
-                toRemove.add(process);
+                if (trace != null) {
+                    trace.record(internalClock, TraceRecorder.HOLD, process.getPID(),
+                            process.getPriority() == 1 ? 1 : 2);
+                }
                 continue;
             }
 
@@ -112,12 +189,9 @@ public class PrManager {
             kernelServices.allocateMemory(process);
             kernelServices.reserveDevices(process.getDevReq());
             getReadyQ().enqueue(process);
+            scheduler.processReady(process);
             process.setState(Process.READY);
-            toRemove.add(process);
-        }
-
-        for (Process p : toRemove) {
-            getSubmitQ().removeProcess(p);
+            if (trace != null) trace.record(internalClock, TraceRecorder.READY, process.getPID(), 0);
         }
     }
 
@@ -127,32 +201,55 @@ public class PrManager {
             time = internalClock;
         }
         internalClock = time;
+        if (startTime < 0) {
+            startTime = time;
+        }
     }
 
+    // Next CPU decision or I/O completion, whichever comes first
     public long getNextDecisionTime() {
-        return nextDecisionTime;
+        return Math.min(nextDecisionTime, kernelServices.getNextIoCompletionTime());
     }
 
     public boolean hasInternalEvents() {
-        return nextDecisionTime < Long.MAX_VALUE;
+        return nextDecisionTime < Long.MAX_VALUE || kernelServices.hasIoInFlight();
     }
 
     /**
-     * Handle internal events: job completion or quantum expiration.
+     * Handle internal events: job completion, quantum expiration, a CPU burst
+     * ending in an I/O request, or I/O completions.
      */
     public void handleInternalEvent() {
-        if (currentProcess != null) {
-            long timeToUse = Math.min(timeQuantumRemaining, currentProcess.getRemainingTime());
-            currentProcess.setRemainingTime(currentProcess.getRemainingTime() - timeToUse);
+        if (currentProcess != null && nextDecisionTime <= internalClock) {
+            long timeToUse = Math.min(timeQuantumRemaining, currentProcess.getCpuBurstRemaining());
+            currentProcess.useCpu(timeToUse);
             timeQuantumRemaining -= timeToUse;
+            cpuBusyTime += timeToUse;
 
             if (currentProcess.getRemainingTime() <= 0) {
                 handleJobCompletion();
+            } else if (currentProcess.needsIo()) {
+                handleIoRequest();
             } else if (timeQuantumRemaining <= 0) {
                 handleTimeQuantumExpiration();
             } else {
                 nextDecisionTime = internalClock
-                        + Math.min(currentProcess.getRemainingTime(), timeQuantumRemaining);
+                        + Math.min(currentProcess.getCpuBurstRemaining(), timeQuantumRemaining);
+            }
+            chargedUntil = internalClock;
+        }
+
+        if (kernelServices.getNextIoCompletionTime() <= internalClock) {
+            // Charge the running job up to now so its decision time stays put
+            if (currentProcess != null && internalClock > chargedUntil) {
+                long elapsed = internalClock - chargedUntil;
+                currentProcess.useCpu(elapsed);
+                timeQuantumRemaining -= elapsed;
+                cpuBusyTime += elapsed;
+                chargedUntil = internalClock;
+            }
+            while (kernelServices.getNextIoCompletionTime() <= internalClock) {
+                handleIoCompletion();
             }
         }
 
@@ -160,14 +257,50 @@ public class PrManager {
         dispatch();
     }
 
+    // CPU burst done: the job leaves the CPU and queues on its I/O device.
+    // It keeps its memory and devices while blocked.
+    private void handleIoRequest() {
+        Process process = currentProcess;
+        process.startIoBurst();
+        process.setState(Process.IO_WAIT);
+        metrics.onIoRequest();
+        if (trace != null) {
+            trace.record(internalClock, TraceRecorder.IO_START, process.getPID(), process.getIoDevice());
+        }
+        kernelServices.startIo(process, internalClock);
+
+        currentProcess = null;
+        timeQuantumRemaining = 0;
+        nextDecisionTime = Long.MAX_VALUE;
+    }
+
+    private void handleIoCompletion() {
+        int device = kernelServices.getNextIoDevice();
+        Process process = kernelServices.completeIo();
+        process.finishIoBurst();
+        process.setState(Process.READY);
+        getReadyQ().enqueue(process);
+        scheduler.processReady(process);
+        if (trace != null) trace.record(internalClock, TraceRecorder.IO_DONE, process.getPID(), device);
+    }
+
     private void handleJobCompletion() {
         if (currentProcess != null) {
             currentProcess.setCompletionTime(internalClock);
             currentProcess.setState(Process.TERMINATED);
+            completedJobs++;
+            metrics.onCompletion(currentProcess);
+            if (trace != null) {
+                trace.record(internalClock, TraceRecorder.COMPLETE, currentProcess.getPID(), 0);
+            }
 
             kernelServices.deallocateMemory(currentProcess);
             kernelServices.releaseDevices(currentProcess.getDevReq());
 
+            if (completionSink != null) {
+                streamCompletion(currentProcess);
+            }
+
             currentProcess = null;
             timeQuantumRemaining = 0;
 
@@ -175,10 +308,45 @@ public class PrManager {
         }
     }
 
+    private void streamCompletion(Process process) {
+        long turnaround = process.getCompletionTime() - process.getArrivalTime();
+        long waiting = turnaround - process.getBurstTime() - process.getIoTime();
+        if (waiting < 0) waiting = 0;
+
+        streamedCount++;
+        streamedTurnaround += turnaround;
+        streamedWaiting += waiting;
+
+        try {
+            completionSink.jobCompleted(process.getPID(), process.getArrivalTime(),
+                    process.getCompletionTime(), turnaround, waiting);
+        } catch (IOException e) {
+            // A lost record would leave a gap in the stream: stop the run instead
+            throw new UncheckedIOException("Could not stream completion of PID " + process.getPID()
+                    + ": " + e.getMessage(), e);
+        }
+        if (evictFinished) {
+            evict(process);
+        }
+    }
+
+    // Only clear the slot if it still belongs to this job (PIDs can be reused)
+    private void evict(Process process) {
+        int slot = (int) process.getPID();
+        if (processTable[slot] == process) {
+            processTable[slot] = null;
+        }
+    }
+
     private void handleTimeQuantumExpiration() {
         if (currentProcess != null && currentProcess.getRemainingTime() > 0) {
             currentProcess.setState(Process.READY);
             getReadyQ().enqueue(currentProcess);
+            scheduler.processReady(currentProcess);
+            metrics.onQuantumExpiration();
+            if (trace != null) {
+                trace.record(internalClock, TraceRecorder.PREEMPT, currentProcess.getPID(), 0);
+            }
             currentProcess = null;
             timeQuantumRemaining = 0;
             nextDecisionTime = Long.MAX_VALUE;
@@ -196,15 +364,22 @@ public class PrManager {
                 scheduler.setCurrentProcess(currentProcess);
                 int tq = scheduler.getTimeQuantum(readyQ);
                 timeQuantumRemaining = tq;
+                metrics.onDispatch(currentProcess, tq);
+                if (trace != null) {
+                    trace.record(internalClock, TraceRecorder.DISPATCH, currentProcess.getPID(), tq);
+                }
                 nextDecisionTime = internalClock
-                        + Math.min(currentProcess.getRemainingTime(), timeQuantumRemaining);
+                        + Math.min(currentProcess.getCpuBurstRemaining(), timeQuantumRemaining);
             }
         } else if (currentProcess != null && currentProcess.getRemainingTime() > 0) {
             nextDecisionTime = internalClock
-                    + Math.min(currentProcess.getRemainingTime(), timeQuantumRemaining);
+                    + Math.min(currentProcess.getCpuBurstRemaining(), timeQuantumRemaining);
         } else {
             nextDecisionTime = Long.MAX_VALUE;
         }
+        if (currentProcess != null) {
+            chargedUntil = internalClock;
+        }
     }
 
     /**
@@ -221,25 +396,22 @@ public class PrManager {
     }
 
     private boolean promoteFromHoldQueue(Queue holdQueue) {
-        List<Process> promoted = new ArrayList<>();
-        List<Process> copy = new ArrayList<>(holdQueue.getProcesses());
-
-        for (Process process : copy) {
+        Queue.Cursor cursor = holdQueue.cursor();
+        while (cursor.hasNext()) {
+            Process process = cursor.next();
             if (kernelServices.hasAvailableResources(process.getMemoryReq(), process.getDevReq())) {
+                cursor.remove();
                 kernelServices.allocateMemory(process);
                 kernelServices.reserveDevices(process.getDevReq());
                 getReadyQ().enqueue(process);
+                scheduler.processReady(process);
                 process.setState(Process.READY);
-                promoted.add(process);
-                break;
+                metrics.onHoldPromotion();
+                if (trace != null) trace.record(internalClock, TraceRecorder.READY, process.getPID(), 0);
+                return true;
             }
         }
-
-        for (Process p : promoted) {
-            holdQueue.removeProcess(p);
-        }
-
-        return !promoted.isEmpty();
+        return false;
     }
 
     /**
@@ -271,6 +443,16 @@ public class PrManager {
 
     // Finished jobs + system-level statistics (handled below)
     displayFinishedJobs(output);
+
+    // Device queues, CPU utilization and throughput once jobs have done I/O
+    if (kernelServices.hasIoDevices()) {
+        displayUtilization(output);
+    }
+
+    // Per-class CPU share when running the fair-share scheduler
+    if (scheduler instanceof FairShareScheduler) {
+        ((FairShareScheduler) scheduler).displayShares(output);
+    }
 }
 
     private void displayQueue(PrintWriter output, String queueName, Queue queue) {
@@ -279,7 +461,9 @@ public class PrManager {
         if (queue.isEmpty()) {
             output.println("  EMPTY");
         } else {
-            for (Process process : queue.getProcesses()) {
+            Queue.Cursor cursor = queue.cursor();
+            while (cursor.hasNext()) {
+                Process process = cursor.next();
                 output.printf("Job ID %d , %.2f Cycles left to completion.%n",
                         process.getPID(), (double) process.getRemainingTime());
             }
@@ -318,6 +502,9 @@ private void displayProcessTable(PrintWriter output) {
             case Process.TERMINATED:
                 stateStr = "TERMINATED";
                 break;
+            case Process.IO_WAIT:
+                stateStr = "IO WAIT";
+                break;
             default:
                 stateStr = "UNKNOWN";
         }
@@ -354,7 +541,7 @@ private void displayFinishedJobs(PrintWriter output) {
     output.println("  Job    ArrivalTime     CompleteTime     TurnaroundTime    WaitingTime");
     output.println("------------------------------------------------------------------------");
 
-    int completedCount = 0;
+    long completedCount = 0;
     long totalTurnaround = 0;
     long totalWaiting = 0;
 
@@ -367,7 +554,7 @@ private void displayFinishedJobs(PrintWriter output) {
                 && process.getCompletionTime() >= process.getArrivalTime()) {
 
             long turnaround = process.getCompletionTime() - process.getArrivalTime();
-            long waiting = turnaround - process.getBurstTime();
+            long waiting = turnaround - process.getBurstTime() - process.getIoTime();
             if (waiting < 0) waiting = 0;
 
             totalTurnaround += turnaround;
@@ -383,6 +570,13 @@ private void displayFinishedJobs(PrintWriter output) {
         }
     }
 
+    // Streaming mode: rows went to the sink, only the running totals are kept
+    if (evictFinished) {
+        completedCount = streamedCount;
+        totalTurnaround = streamedTurnaround;
+        totalWaiting = streamedWaiting;
+    }
+
     if (completedCount == 0) {
         output.println("  EMPTY");
         output.println();
@@ -403,12 +597,288 @@ private void displayFinishedJobs(PrintWriter output) {
     }
 }
 
+    private void displayUtilization(PrintWriter output) {
+        long elapsed = startTime < 0 ? 0 : internalClock - startTime;
+        kernelServices.displayIoDevices(output, internalClock, elapsed);
+        output.printf("CPU Busy Time:               %.2f%n", (double) cpuBusyTime);
+        output.printf("CPU Utilization:             %.1f%%%n",
+                elapsed <= 0 ? 0.0 : 100.0 * cpuBusyTime / elapsed);
+        output.printf("Throughput:                  %.4f jobs/time unit%n",
+                elapsed <= 0 ? 0.0 : (double) completedJobs / elapsed);
+        output.println();
+        output.println();
+    }
+
     public boolean hasActiveProcesses() {
         if (currentProcess != null && currentProcess.getRemainingTime() > 0) return true;
         if (!getReadyQ().isEmpty()) return true;
         if (!getHoldQ1().isEmpty()) return true;
         if (!getHoldQ2().isEmpty()) return true;
         if (!getSubmitQ().isEmpty()) return true;
+        if (kernelServices.hasIoInFlight()) return true;
         return false;
     }
+
+    /**
+     * Copy-on-write fork for what-if runs. Only in-flight jobs (queued or on
+     * the CPU) are copied; terminated jobs never change again, so the fork
+     * shares them. The fork starts with no metrics, trace or sink.
+     */
+    PrManager fork(OtherKerServices forkedKernel, Scheduler forkedScheduler) {
+        Map<Process, Process> copies = new IdentityHashMap<>();
+        java.util.function.Function<Process, Process> copyOf =
+                p -> copies.computeIfAbsent(p, Process::new);
+
+        PrManager fork = new PrManager(forkedScheduler);
+        fork.kernelServices = forkedKernel;
+        fork.readyQ = readyQ.fork(copyOf);
+        fork.submitQ = submitQ.fork(copyOf);
+        fork.holdQ1 = holdQ1.fork(copyOf);
+        fork.holdQ2 = holdQ2.fork(copyOf);
+        fork.currentProcess = currentProcess == null ? null : copyOf.apply(currentProcess);
+        forkedKernel.copyIoFrom(kernelServices, copyOf);
+        fork.processTable = processTable.clone();
+        for (int i = 0; i < fork.processTable.length; i++) {
+            Process copy = copies.get(fork.processTable[i]);
+            if (copy != null) fork.processTable[i] = copy;
+        }
+        fork.nextDecisionTime = nextDecisionTime;
+        fork.internalClock = internalClock;
+        fork.timeQuantumRemaining = timeQuantumRemaining;
+        fork.startTime = startTime;
+        fork.cpuBusyTime = cpuBusyTime;
+        fork.completedJobs = completedJobs;
+        fork.chargedUntil = chargedUntil;
+        if (fork.currentProcess != null) {
+            forkedScheduler.setCurrentProcess(fork.currentProcess);
+        }
+        if (scheduler instanceof FairShareScheduler && forkedScheduler instanceof FairShareScheduler) {
+            ((FairShareScheduler) forkedScheduler).copyState((FairShareScheduler) scheduler, copyOf);
+        } else if (scheduler instanceof AdaptiveRoundRobinScheduler
+                && forkedScheduler instanceof AdaptiveRoundRobinScheduler) {
+            ((AdaptiveRoundRobinScheduler) forkedScheduler).copyState((AdaptiveRoundRobinScheduler) scheduler, copyOf);
+        }
+        fork.readyQ.forEach(forkedScheduler::processReady);
+        return fork;
+    }
+
+    Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    // Utilization counters for HeadlessSimulation
+    long getCpuBusyTime() { return cpuBusyTime; }
+    long getCompletedJobs() { return completedJobs; }
+    long getElapsedTime() { return startTime < 0 ? 0 : internalClock - startTime; }
+    int getHoldDepth() { return holdQ1.size() + holdQ2.size(); }
+
+    // ------------------------------------------------------------------
+    // Checkpoint support (see SimulationSnapshot)
+    // ------------------------------------------------------------------
+
+    private static final int PROCESS_BYTES = 8 * 8 + 4 * 3 + 1 + 1 + 4;
+    private static final int NO_PROCESS = -1;
+
+    /**
+     * Every distinct process reachable from the table, queues or CPU.
+     * A PID can be reused, so queue entries are not always the table entry.
+     */
+    private List<Process> snapshotProcesses() {
+        Map<Process, Integer> seen = new IdentityHashMap<>();
+        List<Process> all = new ArrayList<>();
+        for (Process process : processTable) {
+            if (process != null && seen.put(process, all.size()) == null) all.add(process);
+        }
+        for (Queue queue : new Queue[] { readyQ, submitQ, holdQ1, holdQ2 }) {
+            for (Process process : queue.getProcesses()) {
+                if (seen.put(process, all.size()) == null) all.add(process);
+            }
+        }
+        if (currentProcess != null && seen.put(currentProcess, all.size()) == null) {
+            all.add(currentProcess);
+        }
+        kernelServices.forEachIoProcess(process -> {
+            if (seen.put(process, all.size()) == null) all.add(process);
+        });
+        Process last = schedulerLastProcess();
+        if (last != null && seen.put(last, all.size()) == null) {
+            all.add(last);
+        }
+        return all;
+    }
+
+    // Job the scheduler still refers to after it left the CPU (may be evicted)
+    private Process schedulerLastProcess() {
+        if (scheduler instanceof AdaptiveRoundRobinScheduler) {
+            return ((AdaptiveRoundRobinScheduler) scheduler).getLastProcess();
+        }
+        if (scheduler instanceof FairShareScheduler) {
+            return ((FairShareScheduler) scheduler).getLastProcess();
+        }
+        return null;
+    }
+
+    int snapshotSize() {
+        int queued = readyQ.size() + submitQ.size() + holdQ1.size() + holdQ2.size();
+        int schedulerState = 0;
+        if (scheduler instanceof AdaptiveRoundRobinScheduler) {
+            schedulerState = AdaptiveRoundRobinScheduler.SNAPSHOT_BYTES;
+        } else if (scheduler instanceof FairShareScheduler) {
+            schedulerState = ((FairShareScheduler) scheduler).snapshotSize();
+        }
+        return SimulationSnapshot.schedulerBytes(scheduler) + 8 * 3 + 4 + 8 * 3
+                + 4 + processBytes(snapshotProcesses()) + 8 * 4 + kernelServices.ioSnapshotSize()
+                + 4 + processTable.length * 4
+                + 4 * 4 + queued * 4
+                + schedulerState;
+    }
+
+    // Fixed part plus the burst sequence of jobs that have one
+    private static int processBytes(List<Process> all) {
+        int size = all.size() * PROCESS_BYTES;
+        for (Process p : all) {
+            if (p.hasIoBursts()) {
+                int n = p.getBursts().length;
+                size += n * 8 + (n / 2) * 4 + 4 + 8 + 8;
+            }
+        }
+        return size;
+    }
+
+    void writeSnapshot(ByteBuffer buf) {
+        List<Process> all = snapshotProcesses();
+        Map<Process, Integer> index = new IdentityHashMap<>();
+        for (int i = 0; i < all.size(); i++) {
+            index.put(all.get(i), i);
+        }
+
+        SimulationSnapshot.writeScheduler(buf, scheduler);
+        buf.putLong(nextDecisionTime).putLong(internalClock).putLong(timeQuantumRemaining);
+        buf.putInt(currentProcess == null ? NO_PROCESS : index.get(currentProcess));
+        buf.putLong(streamedCount).putLong(streamedTurnaround).putLong(streamedWaiting);
+        buf.putLong(startTime).putLong(cpuBusyTime).putLong(completedJobs).putLong(chargedUntil);
+
+        buf.putInt(all.size());
+        for (Process p : all) {
+            buf.putLong(p.getPID()).putLong(p.getArrivalTime()).putLong(p.getCompletionTime());
+            buf.putLong(p.getMemoryReq()).putInt(p.getDevReq()).putLong(p.getBurstTime());
+            buf.putLong(p.getRemainingTime()).putInt(p.getPriority()).putLong(p.getWaitingTime());
+            buf.putLong(p.getLastServiceMark()).putInt(p.getOwnerClass());
+            buf.put((byte) p.getState());
+            buf.put((byte) ((p.isMemoryAllocated() ? 1 : 0) | (p.isRejected() ? 2 : 0)));
+            if (!p.hasIoBursts()) {
+                buf.putInt(0);
+                continue;
+            }
+            buf.putInt(p.getBursts().length);
+            for (long burst : p.getBursts()) buf.putLong(burst);
+            for (int device : p.getIoDevices()) buf.putInt(device);
+            buf.putInt(p.getBurstIndex()).putLong(p.getBurstRemaining()).putLong(p.getIoTime());
+        }
+
+        buf.putInt(processTable.length);
+        for (Process process : processTable) {
+            buf.putInt(process == null ? NO_PROCESS : index.get(process));
+        }
+
+        for (Queue queue : new Queue[] { readyQ, submitQ, holdQ1, holdQ2 }) {
+            List<Process> members = queue.getProcesses();
+            buf.putInt(members.size());
+            for (Process process : members) {
+                buf.putInt(index.get(process));
+            }
+        }
+        kernelServices.writeIoSnapshot(buf, index);
+
+        Process last = schedulerLastProcess();
+        int lastIndex = last == null ? NO_PROCESS : index.get(last);
+        if (scheduler instanceof AdaptiveRoundRobinScheduler) {
+            ((AdaptiveRoundRobinScheduler) scheduler).writeSnapshot(buf, lastIndex);
+        } else if (scheduler instanceof FairShareScheduler) {
+            ((FairShareScheduler) scheduler).writeSnapshot(buf, lastIndex);
+        }
+    }
+
+    /**
+     * Restore state written by writeSnapshot. The scheduler kind and settings
+     * are read by the caller (SimulationSnapshot.readScheduler) first.
+     */
+    void readSnapshot(ByteBuffer buf) {
+        nextDecisionTime = buf.getLong();
+        internalClock = buf.getLong();
+        timeQuantumRemaining = buf.getLong();
+        int current = buf.getInt();
+        streamedCount = buf.getLong();
+        streamedTurnaround = buf.getLong();
+        streamedWaiting = buf.getLong();
+        startTime = buf.getLong();
+        cpuBusyTime = buf.getLong();
+        completedJobs = buf.getLong();
+        chargedUntil = buf.getLong();
+
+        Process[] all = new Process[buf.getInt()];
+        for (int i = 0; i < all.length; i++) {
+            long pid = buf.getLong();
+            long arrival = buf.getLong();
+            long completion = buf.getLong();
+            long memoryReq = buf.getLong();
+            int devReq = buf.getInt();
+            long burst = buf.getLong();
+            long remaining = buf.getLong();
+            int priority = buf.getInt();
+            long waiting = buf.getLong();
+            long serviceMark = buf.getLong();
+            int ownerClass = buf.getInt();
+            int state = buf.get();
+            int flags = buf.get();
+
+            Process p = new Process(pid, arrival, memoryReq, devReq, burst, priority, ownerClass);
+            p.setCompletionTime(completion);
+            p.setRemainingTime(remaining);
+            p.setWaitingTime(waiting);
+            p.setState(state);
+            p.setMemoryAllocated((flags & 1) != 0);
+            p.setRejected((flags & 2) != 0);
+            p.setLastServiceMark(serviceMark);
+            int burstCount = buf.getInt();
+            if (burstCount > 0) {
+                long[] bursts = new long[burstCount];
+                for (int b = 0; b < burstCount; b++) bursts[b] = buf.getLong();
+                int[] devices = new int[burstCount / 2];
+                for (int d = 0; d < devices.length; d++) devices[d] = buf.getInt();
+                p.restoreBursts(bursts, devices, buf.getInt(), buf.getLong(), buf.getLong());
+            }
+            all[i] = p;
+        }
+
+        processTable = new Process[buf.getInt()];
+        for (int i = 0; i < processTable.length; i++) {
+            int idx = buf.getInt();
+            processTable[i] = idx == NO_PROCESS ? null : all[idx];
+        }
+
+        // Members are stored in queue order, so re-enqueueing keeps HQ1 sorted as-is
+        for (Queue queue : new Queue[] { readyQ, submitQ, holdQ1, holdQ2 }) {
+            int count = buf.getInt();
+            for (int i = 0; i < count; i++) {
+                queue.enqueue(all[buf.getInt()]);
+            }
+        }
+        kernelServices.readIoSnapshot(buf, all);
+
+        currentProcess = current == NO_PROCESS ? null : all[current];
+        if (currentProcess != null) {
+            scheduler.setCurrentProcess(currentProcess);
+        }
+
+        if (scheduler instanceof AdaptiveRoundRobinScheduler) {
+            AdaptiveRoundRobinScheduler adaptive = (AdaptiveRoundRobinScheduler) scheduler;
+            int last = adaptive.readSnapshot(buf);
+            adaptive.setLastProcess(last == NO_PROCESS ? null : all[last]);
+        } else if (scheduler instanceof FairShareScheduler) {
+            ((FairShareScheduler) scheduler).readSnapshot(buf, all);
+        }
+        // Schedulers with their own ready index rebuild it in ReadyQ order
+        readyQ.forEach(scheduler::processReady);
+    }
 }
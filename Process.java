@@ -17,6 +17,7 @@ public class Process {
     public static final int RUNNING = 1;
     public static final int HOLD = 2;
     public static final int TERMINATED = 3;
+    public static final int IO_WAIT = 4;
 
     private long PID;
     private long arrivalTime;
@@ -33,8 +34,31 @@ public class Process {
     // NEW: flag to mark rejected jobs
     private boolean rejected;
 
+    // CPU service clock when this job last left the CPU (-1 = never ran);
+    // kept by AdaptiveRoundRobinScheduler to measure ready-queue waits
+    private long lastServiceMark = -1;
+
+    // Owner / priority class for FairShareScheduler (defaults to the priority)
+    private int ownerClass;
+
+    // Optional CPU/I-O burst sequence: cpu, io, cpu, ..., cpu (even index = CPU).
+    // null = a single CPU burst of burstTime. Arrays are never modified.
+    private long[] bursts;
+    private int[] ioDevices;       // device of each I/O burst (bursts[2k+1])
+    private int burstIndex;
+    private long burstRemaining;   // left in the current burst
+    private long ioTime;           // I/O service time completed so far
+
+    // Node of the Queue currently holding this job (O(1) removal); not copied
+    private Queue.Node queueNode;
+
     public Process(long PID, long arrivalTime, long memoryReq, int devReq,
                    long burstTime, int priority) {
+        this(PID, arrivalTime, memoryReq, devReq, burstTime, priority, priority);
+    }
+
+    public Process(long PID, long arrivalTime, long memoryReq, int devReq,
+                   long burstTime, int priority, int ownerClass) {
         this.PID = PID;
         this.arrivalTime = arrivalTime;
         this.memoryReq = memoryReq;
@@ -46,6 +70,30 @@ public class Process {
         this.memoryAllocated = false;
         this.waitingTime = 0;
         this.rejected = false; // by default, not rejected
+        this.ownerClass = ownerClass;
+    }
+
+    // Copy for what-if forks (WhatIfAnalysis); the copy is mutated independently
+    Process(Process other) {
+        this.PID = other.PID;
+        this.arrivalTime = other.arrivalTime;
+        this.completionTime = other.completionTime;
+        this.memoryReq = other.memoryReq;
+        this.devReq = other.devReq;
+        this.burstTime = other.burstTime;
+        this.remainingTime = other.remainingTime;
+        this.priority = other.priority;
+        this.memoryAllocated = other.memoryAllocated;
+        this.state = other.state;
+        this.waitingTime = other.waitingTime;
+        this.rejected = other.rejected;
+        this.lastServiceMark = other.lastServiceMark;
+        this.ownerClass = other.ownerClass;
+        this.bursts = other.bursts;
+        this.ioDevices = other.ioDevices;
+        this.burstIndex = other.burstIndex;
+        this.burstRemaining = other.burstRemaining;
+        this.ioTime = other.ioTime;
     }
 
     // Getters
@@ -60,9 +108,11 @@ public class Process {
     public boolean isMemoryAllocated() { return memoryAllocated; }
     public int getState() { return state; }
     public long getWaitingTime() { return waitingTime; }
+    public int getOwnerClass() { return ownerClass; }
 
     // NEW: rejected flag getter
     public boolean isRejected() { return rejected; }
+    long getLastServiceMark() { return lastServiceMark; }
 
     // Setters
     public void setCompletionTime(long time) { this.completionTime = time; }
@@ -73,4 +123,71 @@ public class Process {
 
     // NEW: mark job as rejected (never admitted to system)
     public void setRejected(boolean rejected) { this.rejected = rejected; }
+    void setLastServiceMark(long mark) { this.lastServiceMark = mark; }
+    Queue.Node getQueueNode() { return queueNode; }
+    void setQueueNode(Queue.Node node) { this.queueNode = node; }
+
+    // ------------------------------------------------------------------
+    // CPU / I-O bursts
+    // ------------------------------------------------------------------
+
+    /**
+     * Give the job a burst sequence (cpu, io, cpu, ..., cpu) and the device of
+     * each I/O burst. burstTime must already be the sum of the CPU bursts.
+     */
+    void setBursts(long[] bursts, int[] ioDevices) {
+        this.bursts = bursts;
+        this.ioDevices = ioDevices;
+        this.burstIndex = 0;
+        this.burstRemaining = bursts[0];
+    }
+
+    public boolean hasIoBursts() { return bursts != null; }
+    long[] getBursts() { return bursts; }
+    int[] getIoDevices() { return ioDevices; }
+    int getBurstIndex() { return burstIndex; }
+    long getIoTime() { return ioTime; }
+
+    /** CPU time left before the job blocks for I/O or finishes. */
+    public long getCpuBurstRemaining() {
+        return bursts == null ? remainingTime : burstRemaining;
+    }
+
+    /** Charge CPU time to the job and its current CPU burst. */
+    void useCpu(long time) {
+        remainingTime -= time;
+        if (bursts != null) burstRemaining -= time;
+    }
+
+    /** True when the current CPU burst is used up and an I/O burst follows. */
+    boolean needsIo() {
+        return bursts != null && burstRemaining <= 0 && burstIndex + 1 < bursts.length;
+    }
+
+    /** Move from a finished CPU burst to its I/O burst. */
+    void startIoBurst() {
+        burstIndex++;
+        burstRemaining = bursts[burstIndex];
+    }
+
+    long getIoBurst() { return bursts[burstIndex]; }
+    int getIoDevice() { return ioDevices[burstIndex / 2]; }
+
+    /** Finish the current I/O burst and move to the next CPU burst. */
+    void finishIoBurst() {
+        ioTime += bursts[burstIndex];
+        burstIndex++;
+        burstRemaining = bursts[burstIndex];
+    }
+
+    // Snapshot restore
+    void restoreBursts(long[] bursts, int[] ioDevices, int burstIndex, long burstRemaining, long ioTime) {
+        this.bursts = bursts;
+        this.ioDevices = ioDevices;
+        this.burstIndex = burstIndex;
+        this.burstRemaining = burstRemaining;
+        this.ioTime = ioTime;
+    }
+
+    long getBurstRemaining() { return burstRemaining; }
 }
@@ -1,66 +1,234 @@
 /**
  * Operating Systems Scheduling Simulator
  * CPCS361 Group Project
- * 
+ *
  * Team Members:
  * - Fatimah Saleh Baothman (2307298)
- * - Rafal Abdullah Riri (2308220) 
+ * - Rafal Abdullah Riri (2308220)
  * - Sidrah Faisal Alyamani (2311603)
- * 
+ *
 
  */
 
 package os.simulator;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 public class Queue {
     private String name;
-    private LinkedList<Process> processes;
     private boolean sortedByMemory;
 
+    // Doubly linked list of processes; modCount makes cursors fail-fast.
+    // Each queued process points at its node, so removeProcess is O(1).
+    private Node head;
+    private Node tail;
+    private int size;
+    private int modCount;
+
+    static final class Node {
+        private final Queue owner;
+        private final Process process;
+        private Node prev;
+        private Node next;
+
+        private Node(Queue owner, Process process) {
+            this.owner = owner;
+            this.process = process;
+        }
+    }
+
     public Queue(String name, boolean sortedByMemory) {
         this.name = name;
-        this.processes = new LinkedList<>();
         this.sortedByMemory = sortedByMemory;
     }
 
     // Enqueue with optional HQ1 sorting
     public void enqueue(Process process) {
-        processes.add(process);
+        Node node = new Node(this, process);
         if (sortedByMemory) {
-            sortByMemory();
+            insertSorted(node);
+        } else {
+            linkAfter(tail, node);
         }
     }
 
     public Process dequeue() {
-        if (processes.isEmpty()) {
+        if (head == null) {
             return null;
         }
-        return processes.removeFirst();
+        Process process = head.process;
+        unlink(head);
+        return process;
     }
 
+    /**
+     * Remove a process in O(1) through its node handle. Order of the other
+     * entries is unchanged. Falls back to a scan if the handle belongs to
+     * another queue (a process is normally in one queue at a time).
+     */
     public void removeProcess(Process process) {
-        processes.remove(process);
+        Node node = process.getQueueNode();
+        if (node != null && node.owner == this) {
+            unlink(node);
+            return;
+        }
+        for (node = head; node != null; node = node.next) {
+            if (node.process == process) {
+                unlink(node);
+                return;
+            }
+        }
     }
 
     public boolean isEmpty() {
-        return processes.isEmpty();
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
     }
 
+    /**
+     * Defensive copy of the queue. Prefer forEach() or cursor() on hot paths:
+     * they read the queue in place without copying it.
+     */
     public List<Process> getProcesses() {
-        return new ArrayList<>(processes);
+        List<Process> copy = new ArrayList<>(size);
+        for (Node node = head; node != null; node = node.next) {
+            copy.add(node.process);
+        }
+        return copy;
     }
 
-    // HQ1: sort ascending by memory, break ties by arrival (FIFO)
-    private void sortByMemory() {
-        Collections.sort(processes, (p1, p2) -> {
-            int memoryCompare = Long.compare(p1.getMemoryReq(), p2.getMemoryReq());
-            if (memoryCompare != 0) {
-                return memoryCompare;
+    /**
+     * Visit every process in queue order without copying.
+     * Throws ConcurrentModificationException if the action changes this queue.
+     */
+    public void forEach(Consumer<? super Process> action) {
+        int expected = modCount;
+        for (Node node = head; node != null; node = node.next) {
+            action.accept(node.process);
+            if (modCount != expected) {
+                throw new ConcurrentModificationException(name);
+            }
+        }
+    }
+
+    /**
+     * In-place cursor over the queue (front to back). Fail-fast: any change to
+     * the queue not made through this cursor makes the next call throw
+     * ConcurrentModificationException. Cursor.remove() is safe while iterating.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private Node next = head;
+        private Node lastReturned;
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            checkForModification();
+            return next != null;
+        }
+
+        public Process next() {
+            checkForModification();
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = next.next;
+            return lastReturned.process;
+        }
+
+        /** Remove the process last returned by next(). */
+        public void remove() {
+            checkForModification();
+            if (lastReturned == null) {
+                throw new IllegalStateException();
             }
-            return Long.compare(p1.getArrivalTime(), p2.getArrivalTime());
-        });
+            unlink(lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException(name);
+            }
+        }
+    }
+
+    // Same name, order and sorting, with every member replaced by copyOf(member)
+    Queue fork(java.util.function.Function<Process, Process> copyOf) {
+        Queue copy = new Queue(name, sortedByMemory);
+        for (Node node = head; node != null; node = node.next) {
+            copy.linkAfter(copy.tail, new Node(copy, copyOf.apply(node.process)));
+        }
+        return copy;
+    }
+
+    /**
+     * HQ1: ascending by memory, ties by arrival (FIFO). The queue is always
+     * sorted, so insert after the last entry that does not compare greater;
+     * this gives the same order the old stable re-sort produced.
+     */
+    private void insertSorted(Node node) {
+        Node after = tail;
+        while (after != null && compareByMemory(after.process, node.process) > 0) {
+            after = after.prev;
+        }
+        linkAfter(after, node);
+    }
+
+    private static int compareByMemory(Process p1, Process p2) {
+        int memoryCompare = Long.compare(p1.getMemoryReq(), p2.getMemoryReq());
+        if (memoryCompare != 0) {
+            return memoryCompare;
+        }
+        return Long.compare(p1.getArrivalTime(), p2.getArrivalTime());
+    }
+
+    // Insert node after `after` (null = at the front)
+    private void linkAfter(Node after, Node node) {
+        node.prev = after;
+        node.next = after == null ? head : after.next;
+        if (node.next == null) {
+            tail = node;
+        } else {
+            node.next.prev = node;
+        }
+        if (after == null) {
+            head = node;
+        } else {
+            after.next = node;
+        }
+        node.process.setQueueNode(node);
+        size++;
+        modCount++;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        if (node.process.getQueueNode() == node) {
+            node.process.setQueueNode(null);
+        }
+        size--;
+        modCount++;
     }
 
     public String getName() {
@@ -0,0 +1,71 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Bytes allocated per full scan of a queue: getProcesses() copy vs the
+ * in-place cursor() and forEach() views. Uses the per-thread allocation
+ * counter, the same number JMH's "-prof gc" reports as gc.alloc.rate.norm.
+ */
+package os.simulator;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+public class QueueAllocationBenchmark {
+    private static final int WARMUP = 20000;
+    private static final int ROUNDS = 200000;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.US);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long self = Thread.currentThread().getId();
+
+        System.out.printf("%8s %16s %16s %16s%n", "depth", "getProcesses B/op", "cursor B/op", "forEach B/op");
+        for (int depth : new int[] { 10, 100, 1000 }) {
+            Queue queue = new Queue("ReadyQ", false);
+            for (int i = 0; i < depth; i++) {
+                queue.enqueue(new Process(i % 100, i, 10, 1, 5 + i, 1));
+            }
+
+            double[] perOp = new double[3];
+            for (int variant = 0; variant < 3; variant++) {
+                int rounds = Math.max(1000, ROUNDS / depth * 10);
+                for (int i = 0; i < WARMUP; i++) scan(queue, variant);
+                long before = threads.getThreadAllocatedBytes(self);
+                for (int i = 0; i < rounds; i++) scan(queue, variant);
+                long after = threads.getThreadAllocatedBytes(self);
+                perOp[variant] = (double) (after - before) / rounds;
+            }
+            System.out.printf("%8d %16.1f %16.1f %16.1f%n", depth, perOp[0], perOp[1], perOp[2]);
+        }
+        if (sink == 42) System.out.println();
+    }
+
+    // Sum of remaining times, like DRoundRobinScheduler.getTimeQuantum
+    private static void scan(Queue queue, int variant) {
+        long sum = 0;
+        if (variant == 0) {
+            for (Process p : queue.getProcesses()) sum += p.getRemainingTime();
+        } else if (variant == 1) {
+            Queue.Cursor cursor = queue.cursor();
+            while (cursor.hasNext()) sum += cursor.next().getRemainingTime();
+        } else {
+            queue.forEach(QueueAllocationBenchmark::consume);
+        }
+        sink += sum;
+    }
+
+    private static void consume(Process p) {
+        sink += p.getRemainingTime();
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Deterministic replay check. Each trace is run with its output and its
+ * completion records streamed through SHA-256 (nothing is kept or written),
+ * and the digests are compared with a golden manifest:
+ *
+ *   # output-sha256  completions-sha256  trace
+ *   3f1a...          9c0e...             input1.txt
+ *
+ * The output digest equals sha256sum of output*.txt from a plain run, and
+ * the completion digest that of output*.txt.jobs.bin from a --stream bin
+ * run. These are two different runs: streaming evicts finished jobs, which
+ * changes the D output. Either run needs the same loop limits.
+ *
+ * Traces run without loop limits unless --max-time / --max-iterations are
+ * given. A run that stops at a limit never passes.
+ */
+package os.simulator;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public class ReplayVerifier {
+    public static final String ALGORITHM = "SHA-256";
+
+    /** Digests of one run, as lowercase hex. */
+    public static final class Result {
+        private final String outputDigest;
+        private final String completionDigest;
+        private final long completions;
+        private final boolean limitReached;
+
+        Result(String outputDigest, String completionDigest, long completions, boolean limitReached) {
+            this.outputDigest = outputDigest;
+            this.completionDigest = completionDigest;
+            this.completions = completions;
+            this.limitReached = limitReached;
+        }
+
+        public String getOutputDigest() { return outputDigest; }
+        public String getCompletionDigest() { return completionDigest; }
+        public long getCompletions() { return completions; }
+        /** True if the run stopped at a loop limit with work left. */
+        public boolean isLimitReached() { return limitReached; }
+    }
+
+    private ReplayVerifier() { }
+
+    /**
+     * Run one trace without loop limits and return its digests.
+     */
+    public static Result digest(Reader trace) throws IOException {
+        return digest(trace, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Run one trace with the given loop limits and return its digests.
+     */
+    public static Result digest(Reader trace, long maxTime, long maxIterations) throws IOException {
+        MessageDigest outputHash = newDigest();
+        MessageDigest completionHash = newDigest();
+        Writer output = new BufferedWriter(new OutputStreamWriter(
+                new DigestOutputStream(OutputStream.nullOutputStream(), outputHash),
+                StandardCharsets.UTF_8), 1 << 16);
+        DigestCompletionSink sink = new DigestCompletionSink(completionHash);
+
+        SimulationController controller = new SimulationController(trace, output);
+        controller.enableCompletionStream(sink);
+        controller.setLimits(maxTime, maxIterations);
+
+        // Per-dispatch debug prints are not part of the output
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            controller.runSimulation();
+        } finally {
+            System.setOut(console);
+        }
+        return new Result(hex(outputHash.digest()), hex(completionHash.digest()), sink.getRecords(),
+                controller.isLimitReached());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " not available", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static Result digest(File trace, long maxTime, long maxIterations) throws IOException {
+        return digest(new FileReader(trace), maxTime, maxIterations);
+    }
+
+    /**
+     * Verify every entry of a golden manifest (trace paths are relative to
+     * the manifest), without loop limits. Returns the number of mismatching
+     * or failed traces.
+     */
+    public static int verify(File manifest, PrintStream report) throws IOException {
+        return verify(manifest, report, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as verify(manifest, report), with loop limits; a trace that
+     * stops at a limit counts as failed.
+     */
+    public static int verify(File manifest, PrintStream report, long maxTime, long maxIterations)
+            throws IOException {
+        File base = manifest.getAbsoluteFile().getParentFile();
+        int failures = 0;
+        int checked = 0;
+        try (BufferedReader in = new BufferedReader(new FileReader(manifest))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] parts = line.split("\\s+", 3);
+                if (parts.length < 3) {
+                    throw new IOException("Bad manifest line: " + line);
+                }
+                checked++;
+                Result result;
+                try {
+                    result = digest(resolve(base, parts[2]), maxTime, maxIterations);
+                } catch (IOException e) {
+                    report.printf("FAILED   %s (%s)%n", parts[2], e.getMessage());
+                    failures++;
+                    continue;
+                }
+                if (result.isLimitReached()) {
+                    report.printf("LIMIT    %s (stopped at the loop limit after %d completions)%n",
+                            parts[2], result.getCompletions());
+                    failures++;
+                    continue;
+                }
+                boolean outputOk = result.getOutputDigest().equalsIgnoreCase(parts[0]);
+                boolean completionsOk = result.getCompletionDigest().equalsIgnoreCase(parts[1]);
+                if (outputOk && completionsOk) {
+                    report.printf("OK       %s (%d completions)%n", parts[2], result.getCompletions());
+                } else {
+                    failures++;
+                    report.printf("MISMATCH %s%s%s%n", parts[2],
+                            outputOk ? "" : "\n  output      expected " + parts[0]
+                                    + "\n              actual   " + result.getOutputDigest(),
+                            completionsOk ? "" : "\n  completions expected " + parts[1]
+                                    + "\n              actual   " + result.getCompletionDigest());
+                }
+            }
+        }
+        report.printf("%d trace(s) checked, %d failed%n", checked, failures);
+        return failures;
+    }
+
+    private static File resolve(File base, String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? file : new File(base, path);
+    }
+
+    /**
+     * Write a golden manifest for the given traces (paths relative to the
+     * manifest), without loop limits.
+     */
+    public static void record(File manifest, List<String> traces) throws IOException {
+        record(manifest, traces, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Same as record(manifest, traces), with loop limits; fails if a trace
+     * stops at a limit, since its digests would not cover the whole trace.
+     */
+    public static void record(File manifest, List<String> traces, long maxTime, long maxIterations)
+            throws IOException {
+        File base = manifest.getAbsoluteFile().getParentFile();
+        // Digest everything first so a failed trace leaves no partial manifest
+        List<Result> results = new ArrayList<>();
+        for (String trace : traces) {
+            Result result = digest(resolve(base, trace), maxTime, maxIterations);
+            if (result.isLimitReached()) {
+                throw new IOException(trace + " stopped at the loop limit after "
+                        + result.getCompletions() + " completions");
+            }
+            results.add(result);
+        }
+        try (PrintWriter out = new PrintWriter(new FileWriter(manifest))) {
+            out.println("# output-sha256  completions-sha256  trace");
+            for (int i = 0; i < traces.size(); i++) {
+                Result result = results.get(i);
+                String trace = traces.get(i);
+                out.printf("%s  %s  %s%n", result.getOutputDigest(), result.getCompletionDigest(), trace);
+            }
+        }
+    }
+
+    /**
+     * Usage: java os.simulator.ReplayVerifier [limits] <golden manifest>
+     *        java os.simulator.ReplayVerifier [limits] --record <golden manifest> <trace>...
+     * Limits: --max-time T, --max-iterations N (default: none)
+     */
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        long maxTime = Long.MAX_VALUE;
+        long maxIterations = Long.MAX_VALUE;
+        boolean recording = false;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--max-time") && i + 1 < args.length) {
+                maxTime = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--max-iterations") && i + 1 < args.length) {
+                maxIterations = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--record")) {
+                recording = true;
+            } else {
+                files.add(args[i]);
+            }
+        }
+
+        if (recording && files.size() >= 1) {
+            List<String> traces = files.subList(1, files.size());
+            record(new File(files.get(0)), traces, maxTime, maxIterations);
+            System.out.println("Recorded " + traces.size() + " trace(s) into " + files.get(0));
+            return;
+        }
+        if (recording || files.size() != 1) {
+            System.out.println("Usage: ReplayVerifier [--max-time T] [--max-iterations N] <golden manifest>");
+            System.out.println("       ReplayVerifier [--max-time T] [--max-iterations N] --record <golden manifest> <trace>...");
+            return;
+        }
+        if (verify(new File(files.get(0)), System.out, maxTime, maxIterations) > 0) {
+            System.exit(1);
+        }
+    }
+}
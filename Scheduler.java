@@ -18,4 +18,12 @@ public interface Scheduler {
     Process selectNextProcess(Queue readyQueue);
     int getTimeQuantum(Queue readyQueue);
     void setCurrentProcess(Process process);
+
+    /**
+     * Called each time PrManager puts a job on ReadyQ (admission, promotion,
+     * preemption), in ReadyQ order. Schedulers that keep their own index of
+     * ready jobs override this; the round robin schedulers just read ReadyQ.
+     */
+    default void processReady(Process process) {
+    }
 }
@@ -0,0 +1,76 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Compares Dynamic, Static and Adaptive Round Robin and Fair Share on generated workloads
+ * (same seed per workload, so every scheduler sees the same jobs).
+ */
+package os.simulator;
+
+import java.io.*;
+import java.util.Locale;
+
+public class SchedulerBenchmark {
+    private static final int[] SCHEDULERS = { 1, 2, 3, 4 };
+    private static final String[] SCHEDULER_NAMES = { "", "DynamicRR", "StaticRR", "AdaptiveRR", "FairShare" };
+
+    /**
+     * Usage: java os.simulator.SchedulerBenchmark [arrivals] [seed]
+     */
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        long arrivals = args.length > 0 ? Long.parseLong(args[0]) : 20000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        PrintStream console = System.out;
+        console.printf("%-10s %-11s %8s %10s %9s %9s %9s %9s %8s%n", "Workload", "Scheduler",
+                "Finished", "AvgTurn", "AvgWait", "p90Wait", "p99Wait", "CtxSw", "ms");
+
+        for (boolean bursty : new boolean[] { false, true }) {
+            for (int sched : SCHEDULERS) {
+                File trace = File.createTempFile("bench", ".txt");
+                try {
+                    WorkloadGenerator generator = new WorkloadGenerator(seed);
+                    generator.setSystem(200, 12, sched);
+                    generator.setEpochs(1, arrivals, 100000);
+                    generator.setBursty(bursty, 10.0, 0.05);
+                    try (Writer out = new BufferedWriter(new FileWriter(trace), 1 << 16)) {
+                        generator.writeTo(out);
+                    }
+
+                    SimulationController controller =
+                            new SimulationController(new FileReader(trace), Writer.nullWriter());
+                    controller.setLimits(Long.MAX_VALUE, Long.MAX_VALUE);
+                    controller.enableMetrics();
+
+                    // Silence per-dispatch debug prints while timing
+                    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                    long start = System.nanoTime();
+                    try {
+                        controller.runSimulation();
+                    } finally {
+                        System.setOut(console);
+                    }
+                    long elapsed = System.nanoTime() - start;
+
+                    SimulationMetrics m = controller.getMetrics();
+                    console.printf("%-10s %-11s %8d %10.2f %9.2f %9d %9d %9d %8d%n",
+                            bursty ? "bursty" : "poisson", SCHEDULER_NAMES[sched],
+                            m.getCompletions(), m.getTurnaround().getMean(), m.getWaiting().getMean(),
+                            m.getWaiting().getValueAtPercentile(90),
+                            m.getWaiting().getValueAtPercentile(99),
+                            m.getContextSwitches(), elapsed / 1000000);
+                } finally {
+                    trace.delete();
+                }
+            }
+        }
+    }
+}
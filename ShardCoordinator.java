@@ -0,0 +1,187 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Splits a trace at its C lines and runs each epoch in a separate worker JVM
+ * (ShardWorker) on this machine, talking over stdin/stdout pipes. Epochs are
+ * independent because every C line resets the whole system, so the merged
+ * output matches a single-JVM run. Each shard is streamed to its worker as it
+ * is read, so no shard is ever held in the coordinator's memory.
+ *
+ * Note: the loop safety limits (setLimits) apply per shard, not per trace.
+ */
+package os.simulator;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+
+public class ShardCoordinator {
+    private final File inputFile;
+    private final File outputFile;
+    private final int maxWorkers;
+    private long maxSimulationTime = -1;
+    private long maxIterations = -1;
+
+    // One running (or finished) worker and the temp file holding its output
+    private static class Shard {
+        java.lang.Process worker;
+        Thread drainer;
+        File output;
+        volatile IOException error;
+    }
+
+    public ShardCoordinator(String inputFile, String outputFile, int maxWorkers) {
+        this.inputFile = new File(inputFile);
+        this.outputFile = new File(outputFile);
+        this.maxWorkers = Math.max(1, maxWorkers);
+    }
+
+    public void setLimits(long maxSimulationTime, long maxIterations) {
+        this.maxSimulationTime = maxSimulationTime;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Run every shard and write the merged output. Returns the shard count.
+     */
+    public int run() throws IOException, InterruptedException {
+        Semaphore slots = new Semaphore(maxWorkers);
+        List<Shard> shards = new ArrayList<>();
+        BufferedWriter toWorker = null;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+
+                if (line.startsWith("C")) {
+                    if (toWorker != null) {
+                        // The next C line ends the previous epoch exactly like the full run
+                        toWorker.write(line);
+                        toWorker.newLine();
+                        toWorker.close();
+                    }
+                    slots.acquire();
+                    Shard shard = startWorker(shards.size(), slots);
+                    shards.add(shard);
+                    toWorker = new BufferedWriter(
+                            new OutputStreamWriter(shard.worker.getOutputStream()), 1 << 16);
+                }
+
+                // Lines before the first C are ignored by the controller too
+                if (toWorker != null) {
+                    toWorker.write(line);
+                    toWorker.newLine();
+                }
+            }
+        } finally {
+            if (toWorker != null) toWorker.close();
+        }
+
+        IOException failure = null;
+        for (Shard shard : shards) {
+            shard.drainer.join();
+            if (shard.error != null && failure == null) failure = shard.error;
+        }
+        if (failure == null) {
+            merge(shards);
+        }
+        for (Shard shard : shards) {
+            shard.output.delete();
+        }
+        if (failure != null) throw failure;
+        return shards.size();
+    }
+
+    private Shard startWorker(int index, Semaphore slots) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ShardWorker.class.getName());
+        if (maxSimulationTime > 0 || maxIterations > 0) {
+            command.add(Long.toString(maxSimulationTime > 0 ? maxSimulationTime : Long.MAX_VALUE));
+            command.add(Long.toString(maxIterations > 0 ? maxIterations : Long.MAX_VALUE));
+        }
+
+        Shard shard = new Shard();
+        shard.output = File.createTempFile("shard" + index + "-", ".out");
+        shard.worker = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        shard.drainer = new Thread(() -> {
+            try (InputStream in = shard.worker.getInputStream();
+                 OutputStream out = new FileOutputStream(shard.output)) {
+                in.transferTo(out);
+                int exit = shard.worker.waitFor();
+                if (exit != 0) {
+                    shard.error = new IOException("Shard " + index + " worker exited with " + exit);
+                }
+            } catch (IOException e) {
+                shard.error = e;
+            } catch (InterruptedException e) {
+                shard.error = new IOException("Interrupted waiting for shard " + index, e);
+            } finally {
+                slots.release();
+            }
+        }, "shard-" + index);
+        shard.drainer.start();
+        return shard;
+    }
+
+    // Concatenate shard outputs in trace order
+    private void merge(List<Shard> shards) throws IOException {
+        try (FileChannel out = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Shard shard : shards) {
+                try (FileChannel in = FileChannel.open(shard.output.toPath(), StandardOpenOption.READ)) {
+                    long position = 0;
+                    long size = in.size();
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Usage: java os.simulator.ShardCoordinator <input> <output> [workers]
+     *        [--max-time T] [--max-iterations N]
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: ShardCoordinator <input> <output> [workers] "
+                    + "[--max-time T] [--max-iterations N]");
+            return;
+        }
+        int workers = Runtime.getRuntime().availableProcessors();
+        long maxTime = -1;
+        long maxIterations = -1;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--max-time") && i + 1 < args.length) {
+                maxTime = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--max-iterations") && i + 1 < args.length) {
+                maxIterations = Long.parseLong(args[++i]);
+            } else {
+                workers = Integer.parseInt(args[i]);
+            }
+        }
+
+        ShardCoordinator coordinator = new ShardCoordinator(args[0], args[1], workers);
+        coordinator.setLimits(maxTime, maxIterations);
+        int count = coordinator.run();
+        System.out.println("Merged " + count + " shards into " + args[1]);
+    }
+}
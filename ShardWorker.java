@@ -0,0 +1,38 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Worker JVM for ShardCoordinator.
+ * Reads one C-epoch shard on stdin, runs the normal SimulationController loop
+ * and writes the simulation output to stdout. Debug prints go to stderr.
+ */
+package os.simulator;
+
+import java.io.*;
+
+public class ShardWorker {
+
+    /**
+     * Usage (started by ShardCoordinator): ShardWorker [maxTime maxIterations]
+     */
+    public static void main(String[] args) throws IOException {
+        PrintStream pipe = System.out;
+        System.setOut(System.err); // keep scheduler debug output off the pipe
+
+        SimulationController controller = new SimulationController(
+                new InputStreamReader(System.in),
+                new BufferedWriter(new OutputStreamWriter(pipe), 1 << 16));
+        controller.setStopAtNextConfig(true);
+        if (args.length >= 2) {
+            controller.setLimits(Long.parseLong(args[0]), Long.parseLong(args[1]));
+        }
+        controller.runSimulation();
+    }
+}
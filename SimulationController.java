@@ -17,10 +17,16 @@
 package os.simulator;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.zip.CRC32;
 
 public class SimulationController {
-    private BufferedReader inputReader;
+    private OffsetLineReader inputLines;  // file input
+    private BufferedReader inputReader;   // stream input (no forks)
     private PrintWriter outputWriter;
     private PrManager processManager;
     private OtherKerServices kernelServices;
@@ -32,11 +38,35 @@ public class SimulationController {
     private File inputFile;
     private File outputFile;
 
+    // Safety limits; the defaults suit the hand-written input files
+    private long maxSimulationTime = 1000000;
+    private long maxIterations = 10000;
+    private long iterationCount;
+    private boolean limitReached;
+
+    // Periodic checkpointing (off unless enableCheckpoints is called)
+    private File checkpointFile;
+    private int checkpointInterval;
+    private long lastCheckpointIteration;
+    private boolean resumed;
+    private long resumedSinkLength = -1;   // completion stream length at the checkpoint
+    private long resumedTraceLength = -1;  // trace length at the checkpoint
+
+    private SimulationMetrics metrics = SimulationMetrics.DISABLED;
+    private CompletionSink completionSink;
+    private TraceRecorder traceRecorder;
+    private PacedClock pacedClock;      // null: run as fast as possible
+
+    // What-if evaluation at D events; forkRun marks a speculative continuation
+    private WhatIfAnalysis whatIf;
+    private boolean forkRun;
+    private boolean stopAtNextConfig;   // end the run at the next C line (forks, shards)
+
     public SimulationController(String inputFile, String outputFile) throws IOException {
         Locale.setDefault(Locale.US);
         this.inputFile = new File(inputFile);
         this.outputFile = new File(outputFile);
-        this.inputReader = new BufferedReader(new FileReader(this.inputFile));
+        this.inputLines = new OffsetLineReader(this.inputFile, 0);
         this.outputWriter = new PrintWriter(new FileWriter(this.outputFile));
         this.kernelServices = new OtherKerServices();
         this.currentTime = 0;
@@ -45,13 +75,303 @@ public class SimulationController {
         readNextEvent();
     }
 
+    /**
+     * Run on streams instead of files (used by ShardWorker). Checkpoints and
+     * what-if need the input file and are not available in this mode.
+     */
+    public SimulationController(Reader input, Writer output) throws IOException {
+        Locale.setDefault(Locale.US);
+        this.inputReader = new BufferedReader(input);
+        this.outputWriter = new PrintWriter(output);
+        this.kernelServices = new OtherKerServices();
+        this.currentTime = 0;
+        this.hasMoreEvents = true;
+        this.simulationActive = false;
+        readNextEvent();
+    }
+
+    /**
+     * Resume a run from a snapshot written by enableCheckpoints.
+     * The output file is cut back to the length it had at the checkpoint and
+     * appended to, so the final output matches an uninterrupted run. The
+     * input is read on from the stored byte offset; a file whose length or
+     * bytes just before that offset differ from the checkpoint is rejected.
+     */
+    public static SimulationController resume(String inputFile, String outputFile,
+                                              String snapshotFile) throws IOException {
+        return new SimulationController(new File(inputFile), new File(outputFile),
+                SimulationSnapshot.read(new File(snapshotFile)));
+    }
+
+    private SimulationController(File inputFile, File outputFile, ByteBuffer snapshot)
+            throws IOException {
+        Locale.setDefault(Locale.US);
+        this.inputFile = inputFile;
+        this.outputFile = outputFile;
+
+        this.currentTime = snapshot.getLong();
+        this.hasMoreEvents = snapshot.get() != 0;
+        this.simulationActive = snapshot.get() != 0;
+        this.nextEventTime = snapshot.getLong();
+        this.iterationCount = snapshot.getLong();
+        this.lastCheckpointIteration = iterationCount;
+        long inputOffset = snapshot.getLong();
+        long inputLength = snapshot.getLong();
+        long inputCheck = snapshot.getLong();
+        long outputLength = snapshot.getLong();
+        this.resumedSinkLength = snapshot.getLong();
+        this.resumedTraceLength = snapshot.getLong();
+        this.resumed = true;
+        int lineBytes = snapshot.getInt();
+        if (lineBytes >= 0) {
+            byte[] line = new byte[lineBytes];
+            snapshot.get(line);
+            this.nextEventLine = new String(line, StandardCharsets.UTF_8);
+        }
+
+        this.kernelServices = new OtherKerServices();
+        kernelServices.readSnapshot(snapshot);
+        if (simulationActive) {
+            processManager = new PrManager(SimulationSnapshot.readScheduler(snapshot));
+            processManager.initialize(kernelServices);
+            processManager.setMetrics(metrics);
+            processManager.readSnapshot(snapshot);
+        }
+
+        this.inputLines = new OffsetLineReader(inputFile, inputOffset);
+        if (inputLines.size() != inputLength || inputLines.checksum() != inputCheck) {
+            inputLines.close();
+            throw new IOException("Input changed since the snapshot was taken: " + inputFile);
+        }
+
+        SimulationSnapshot.truncate(outputFile.toPath(), outputLength, "Output");
+        this.outputWriter = new PrintWriter(new FileWriter(outputFile, true));
+    }
+
+    /**
+     * Speculative continuation of `parent` from its current position: state is
+     * forked (see PrManager.fork), output is discarded and the run stops at
+     * the next configuration line. Finished jobs go to `sink`.
+     */
+    private SimulationController(SimulationController parent, PrManager forkedManager,
+                                 OtherKerServices forkedKernel, CompletionSink sink)
+            throws IOException {
+        this.inputFile = parent.inputFile;
+        this.outputFile = parent.outputFile;
+        this.outputWriter = new PrintWriter(Writer.nullWriter());
+        this.kernelServices = forkedKernel;
+        this.processManager = forkedManager;
+        this.completionSink = sink;
+        forkedManager.setCompletionSink(sink);
+        this.currentTime = parent.currentTime;
+        this.simulationActive = true;
+        this.maxSimulationTime = parent.maxSimulationTime;
+        this.maxIterations = parent.maxIterations;
+        this.iterationCount = parent.iterationCount;
+        this.forkRun = true;
+        this.stopAtNextConfig = true;
+
+        // The parent forks from inside a D event; finish its loop iteration here
+        forkedManager.dispatch();
+
+        // Continue reading where the parent is; no rescan of the input
+        this.inputLines = new OffsetLineReader(inputFile, parent.inputLines.getOffset());
+        if (parent.hasMoreEvents) {
+            this.hasMoreEvents = true;
+            readNextEvent();
+        } else {
+            this.hasMoreEvents = false;
+            this.nextEventTime = Long.MAX_VALUE;
+        }
+    }
+
+    SimulationController forkContinuation(WhatIfAnalysis.Scenario scenario, CompletionSink sink)
+            throws IOException {
+        long extraMemory = Math.round(kernelServices.getMemorySize() * (scenario.getMemoryScale() - 1));
+        int extraDevices = (int) Math.round(kernelServices.getNoDevs() * (scenario.getDeviceScale() - 1));
+        OtherKerServices kernel = kernelServices.fork(extraMemory, extraDevices);
+        Scheduler scheduler = scenario.getSchedulerType() == WhatIfAnalysis.Scenario.SAME_SCHEDULER
+                ? SimulationSnapshot.sameKind(processManager.getScheduler())
+                : SimulationSnapshot.newScheduler((byte) scenario.getSchedulerType());
+        if (scheduler instanceof DRoundRobinScheduler) {
+            // Forks run alongside the real run; their quantum trace would land in its stdout
+            ((DRoundRobinScheduler) scheduler).setVerbose(false);
+        }
+        PrManager manager = processManager.fork(kernel, scheduler);
+        return new SimulationController(this, manager, kernel, sink);
+    }
+
+    /**
+     * At every D event, also fork the state and report how the rest of the
+     * current configuration would go under each scenario.
+     */
+    public void enableWhatIf(WhatIfAnalysis analysis) {
+        if (inputFile == null) {
+            throw new IllegalStateException("What-if needs a file input");
+        }
+        this.whatIf = analysis;
+        if (processManager != null) {
+            processManager.setCompletionSink(managerSink());
+        }
+    }
+
+    // With what-if on, the real run's completions are also counted to check the baselines
+    private CompletionSink managerSink() {
+        return whatIf == null ? completionSink : whatIf.observe(completionSink);
+    }
+
+    long getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * End the run when a second configuration line is reached, exactly as
+     * the full run would end that configuration (used for C-epoch shards).
+     */
+    public void setStopAtNextConfig(boolean stop) {
+        this.stopAtNextConfig = stop;
+    }
+
+    /**
+     * Raise (or lower) the loop safety limits, e.g. for generated traces.
+     */
+    public void setLimits(long maxSimulationTime, long maxIterations) {
+        this.maxSimulationTime = maxSimulationTime;
+        this.maxIterations = maxIterations;
+    }
+
+    /** True if the last run stopped at the time or iteration limit with work left. */
+    public boolean isLimitReached() {
+        return limitReached;
+    }
+
+    /**
+     * Write a snapshot to the given file every `interval` loop iterations.
+     */
+    public void enableCheckpoints(String snapshotFile, int interval) {
+        if (inputFile == null) {
+            throw new IllegalStateException("Checkpoints need file input and output");
+        }
+        this.checkpointFile = new File(snapshotFile);
+        this.checkpointInterval = Math.max(1, interval);
+    }
+
+    /**
+     * Turn on hot-path instrumentation; the report is written next to the
+     * output file (output*.txt.metrics) when the run ends. Stream-based runs
+     * only expose it through getMetrics().
+     */
+    public void enableMetrics() {
+        this.metrics = new SimulationMetrics(true);
+        if (processManager != null) {
+            processManager.setMetrics(metrics);
+        }
+    }
+
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Stream finished jobs to the sink instead of keeping them in the
+     * process table. The sink is closed when runSimulation returns.
+     */
+    public void enableCompletionStream(CompletionSink sink) {
+        if (resumed && resumedSinkLength < 0) {
+            throw new IllegalStateException("Snapshot was taken without a completion stream");
+        }
+        this.completionSink = sink;
+        if (processManager != null) {
+            processManager.setCompletionSink(managerSink());
+        }
+    }
+
+    /**
+     * Length of the completion stream at the checkpoint this run resumed
+     * from (pass it to the sink so the file is continued), or -1.
+     */
+    public long getResumedSinkLength() {
+        return resumedSinkLength;
+    }
+
+    /**
+     * Record the CPU timeline (dispatch, preemption, completion, hold/ready)
+     * to the recorder; it is closed when runSimulation returns.
+     */
+    public void enableTrace(TraceRecorder recorder) {
+        if (resumed && resumedTraceLength < 0) {
+            throw new IllegalStateException("Snapshot was taken without a trace");
+        }
+        this.traceRecorder = recorder;
+        if (processManager != null) {
+            processManager.setTraceRecorder(recorder);
+        }
+    }
+
+    /**
+     * Advance simulated time in step with the wall clock: each min(i,e)
+     * event waits until its scaled deadline. Not saved in checkpoints; a
+     * resumed run re-anchors where it picks up.
+     */
+    public void enablePacing(PacedClock clock) {
+        this.pacedClock = clock;
+    }
+
+    public PacedClock getPacedClock() {
+        return pacedClock;
+    }
+
+    /**
+     * Length of the trace at the checkpoint this run resumed from (pass it
+     * to the recorder so the file is continued), or -1.
+     */
+    public long getResumedTraceLength() {
+        return resumedTraceLength;
+    }
+
+    private void writeCheckpoint() throws IOException {
+        outputWriter.flush();
+        byte[] line = nextEventLine == null ? null : nextEventLine.getBytes(StandardCharsets.UTF_8);
+
+        int size = 8 + 1 + 1 + 8 + 8 + 8 + 8 + 8 + 8 + 8 + 8 + 4 + (line == null ? 0 : line.length)
+                + OtherKerServices.SNAPSHOT_BYTES
+                + (simulationActive ? processManager.snapshotSize() : 0);
+        ByteBuffer buf = ByteBuffer.allocate(size);
+
+        buf.putLong(currentTime);
+        buf.put((byte) (hasMoreEvents ? 1 : 0));
+        buf.put((byte) (simulationActive ? 1 : 0));
+        buf.putLong(nextEventTime);
+        buf.putLong(iterationCount);
+        buf.putLong(inputLines.getOffset());
+        buf.putLong(inputLines.size());
+        buf.putLong(inputLines.checksum());
+        buf.putLong(outputFile.length());
+        buf.putLong(completionSink == null ? -1 : completionSink.checkpoint());
+        buf.putLong(traceRecorder == null ? -1 : traceRecorder.checkpoint());
+        buf.putInt(line == null ? -1 : line.length);
+        if (line != null) buf.put(line);
+
+        kernelServices.writeSnapshot(buf);
+        if (simulationActive) {
+            processManager.writeSnapshot(buf);
+        }
+
+        SimulationSnapshot.write(checkpointFile, buf);
+        lastCheckpointIteration = iterationCount;
+    }
+
+    private String readLine() throws IOException {
+        return inputLines != null ? inputLines.readLine() : inputReader.readLine();
+    }
+
     // Read one event line and extract its time
    private void readNextEvent() throws IOException {
-    nextEventLine = inputReader.readLine();
+    nextEventLine = readLine();
 
     // Skip ALL blank/whitespace-only lines (doctor format has many)
     while (nextEventLine != null && nextEventLine.trim().isEmpty()) {
-        nextEventLine = inputReader.readLine();
+        nextEventLine = readLine();
     }
 
     // If we reached the end of file
@@ -79,24 +399,47 @@ public class SimulationController {
      * Main simulation loop with proper min(i,e).
      */
     public void runSimulation() throws IOException {
-        long maxSimulationTime = 1000000;
-        int maxIterations = 10000;
-        int iterationCount = 0;
-
+        if (resumedSinkLength >= 0 && completionSink == null) {
+            throw new IllegalStateException(
+                    "Snapshot was taken with a completion stream; resume with the same --stream");
+        }
+        if (resumedTraceLength >= 0 && traceRecorder == null) {
+            throw new IllegalStateException("Snapshot was taken with a trace; resume with --trace");
+        }
+        // A fresh run is anchored by its first C line; a resumed one starts mid-epoch
+        if (pacedClock != null && simulationActive) {
+            pacedClock.anchor(currentTime);
+        }
         while ((hasMoreEvents
                || (simulationActive && processManager.hasInternalEvents())
                || (simulationActive && processManager.hasActiveProcesses()))
                && currentTime < maxSimulationTime
                && iterationCount < maxIterations) {
 
+            if (checkpointFile != null
+                    && iterationCount - lastCheckpointIteration >= checkpointInterval) {
+                writeCheckpoint();
+            }
+
             iterationCount++;
 
             // Handle configuration (C)
             if (hasMoreEvents && nextEventLine != null && nextEventLine.startsWith("C")) {
+                if (stopAtNextConfig && simulationActive) {
+                    break;
+                }
+                if (pacedClock != null) {
+                    pacedClock.awaitTime(nextEventTime);
+                }
+                long start = metrics.startTimer();
                 if (simulationActive) {
                     finishCurrentSimulation();
                 }
                 startNewSimulation();
+                metrics.stopTimer(SimulationMetrics.EVENT_CONFIG, start);
+                if (pacedClock != null) {
+                    pacedClock.anchor(currentTime);
+                }
                 continue;
             }
 
@@ -108,13 +451,16 @@ public class SimulationController {
             }
 
             long nextInternalTime = processManager.getNextDecisionTime();
+            if (pacedClock != null) {
+                pacedClock.awaitTime(Math.min(nextInternalTime, nextEventTime));
+            }
 
             // min(i,e) logic
             if (nextInternalTime < nextEventTime) {
                 // internal event first
                 currentTime = nextInternalTime;
                 processManager.cpuTimeAdvance(currentTime);
-                processManager.handleInternalEvent();
+                handleInternalEvent();
             } else if (nextInternalTime > nextEventTime) {
                 // external event
                 currentTime = nextEventTime;
@@ -126,7 +472,7 @@ public class SimulationController {
                 if (nextInternalTime != Long.MAX_VALUE) {
                     currentTime = nextInternalTime;
                     processManager.cpuTimeAdvance(currentTime);
-                    processManager.handleInternalEvent();
+                    handleInternalEvent();
                 } else {
                     currentTime = nextEventTime;
                     processManager.cpuTimeAdvance(currentTime);
@@ -137,17 +483,127 @@ public class SimulationController {
 
             // Always try dispatch after handling events
             processManager.dispatch();
+            metrics.sampleQueues(currentTime, processManager.getReadyQ().size(),
+                    processManager.getHoldQ1().size() + processManager.getHoldQ2().size());
         }
 
+        boolean workLeft = hasMoreEvents || (simulationActive
+                && (processManager.hasInternalEvents() || processManager.hasActiveProcesses()));
+        limitReached = workLeft
+                && (currentTime >= maxSimulationTime || iterationCount >= maxIterations);
+
         if (simulationActive) {
             finishCurrentSimulation();
         }
 
         outputWriter.close();
-        inputReader.close();
+        if (inputLines != null) {
+            inputLines.close();
+        } else {
+            inputReader.close();
+        }
+        if (completionSink != null) {
+            completionSink.close();
+        }
+        if (traceRecorder != null) {
+            traceRecorder.close();
+        }
+
+        if (metrics.isEnabled() && outputFile != null) {
+            try (PrintWriter report = new PrintWriter(new FileWriter(outputFile.getPath() + ".metrics"))) {
+                metrics.writeReport(report);
+            }
+        }
+    }
+
+    private void handleInternalEvent() {
+        long start = metrics.startTimer();
+        processManager.handleInternalEvent();
+        metrics.stopTimer(SimulationMetrics.EVENT_INTERNAL, start);
+    }
+
+    /**
+     * Line reader over the input file that knows the byte offset of the next
+     * line, so a what-if fork or a resumed run can seek straight to where the
+     * run stands. Line ends as in BufferedReader.readLine (\n, \r\n or \r); UTF-8.
+     */
+    private static final class OffsetLineReader implements Closeable {
+        private static final int CHECK_BYTES = 4096;
+
+        private final FileChannel channel;
+        private final byte[] buffer = new byte[1 << 16];
+        private final ByteBuffer window = ByteBuffer.wrap(buffer);
+        private int position;
+        private int limit;
+        private long offset;                // file offset of buffer[position]
+        private byte[] line = new byte[256];
+
+        OffsetLineReader(File file, long offset) throws IOException {
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            channel.position(offset);
+            this.offset = offset;
+        }
+
+        long getOffset() {
+            return offset;
+        }
+
+        long size() throws IOException {
+            return channel.size();
+        }
+
+        // CRC32 of the (up to) CHECK_BYTES before the offset; with the size it
+        // tells a resume whether the input is still the one it stopped in.
+        // Positional reads leave the channel position alone.
+        long checksum() throws IOException {
+            long start = Math.max(0, offset - CHECK_BYTES);
+            ByteBuffer bytes = ByteBuffer.allocate((int) (offset - start));
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, start + bytes.position()) < 0) break;
+            }
+            bytes.flip();
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            return crc.getValue();
+        }
+
+        private boolean fill() throws IOException {
+            window.clear();
+            int n = channel.read(window);
+            position = 0;
+            limit = Math.max(n, 0);
+            return limit > 0;
+        }
+
+        String readLine() throws IOException {
+            int length = 0;
+            while (true) {
+                if (position == limit && !fill()) {
+                    return length == 0 ? null : new String(line, 0, length, StandardCharsets.UTF_8);
+                }
+                byte b = buffer[position++];
+                offset++;
+                if (b == '\n' || b == '\r') {
+                    if (b == '\r' && (position < limit || fill()) && buffer[position] == '\n') {
+                        position++;
+                        offset++;
+                    }
+                    return new String(line, 0, length, StandardCharsets.UTF_8);
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
     }
 
-    // Start simulation at a configuration line C t M= S= [SCHED=]
+    // Start simulation at a configuration line C t M= S= [SCHED=] [W=class:weight,...] [A=...]
     private void startNewSimulation() throws IOException {
         String[] parts = nextEventLine.split("\\s+");
         long time = Long.parseLong(parts[1]);
@@ -161,6 +617,14 @@ public class SimulationController {
                 scheduler = new SRoundRobinScheduler();
                 outputWriter.printf("CONFIG at %.2f: mem=%d devices=%d scheduler=StaticRR%n%n",
                         (double) time, memory, devices);
+            } else if (schedulerType == 3) {
+                scheduler = parseAdaptive(parts);
+                outputWriter.printf("CONFIG at %.2f: mem=%d devices=%d scheduler=AdaptiveRR%n%n",
+                        (double) time, memory, devices);
+            } else if (schedulerType == 4) {
+                scheduler = new FairShareScheduler(18, parseClassWeights(parts));
+                outputWriter.printf("CONFIG at %.2f: mem=%d devices=%d scheduler=FairShare%n%n",
+                        (double) time, memory, devices);
             } else {
                 scheduler = new DRoundRobinScheduler();
                 outputWriter.printf("CONFIG at %.2f: mem=%d devices=%d scheduler=DynamicRR%n%n",
@@ -177,17 +641,59 @@ public class SimulationController {
         kernelServices.initialize(memory, devices);
         processManager = new PrManager(scheduler);
         processManager.initialize(kernelServices);
+        processManager.setMetrics(metrics);
+        processManager.setCompletionSink(managerSink());
+        processManager.setTraceRecorder(traceRecorder);
         simulationActive = true;
 
         readNextEvent();
     }
 
+    // W=1:3,2:1 -> class 1 weight 3, class 2 weight 1 (unlisted classes get 1)
+    private static Map<Integer, Double> parseClassWeights(String[] parts) {
+        Map<Integer, Double> weights = new HashMap<>();
+        for (int i = 5; i < parts.length; i++) {
+            if (!parts[i].startsWith("W=")) continue;
+            for (String pair : parts[i].substring(2).split(",")) {
+                String[] kv = pair.split(":");
+                double weight = Double.parseDouble(kv[1]);
+                if (weight <= 0) {
+                    throw new IllegalArgumentException("Class weight must be positive: " + pair);
+                }
+                weights.put(Integer.parseInt(kv[0]), weight);
+            }
+        }
+        return weights;
+    }
+
+    // A=switch:0.3 -> ~30% of dispatches preempted (default)
+    // A=wait:200:0.9 -> keep the 90th percentile ReadyQ wait under 200
+    private static AdaptiveRoundRobinScheduler parseAdaptive(String[] parts) {
+        for (int i = 5; i < parts.length; i++) {
+            if (!parts[i].startsWith("A=")) continue;
+            String[] f = parts[i].substring(2).split(":");
+            if (f[0].equals("switch") && f.length == 2) {
+                return new AdaptiveRoundRobinScheduler(AdaptiveRoundRobinScheduler.SWITCH_BUDGET,
+                        Double.parseDouble(f[1]), 0);
+            }
+            if (f[0].equals("wait") && f.length == 3) {
+                return new AdaptiveRoundRobinScheduler(AdaptiveRoundRobinScheduler.WAITING_PERCENTILE,
+                        Double.parseDouble(f[1]), Double.parseDouble(f[2]));
+            }
+            throw new IllegalArgumentException("Bad adaptive setting: " + parts[i]);
+        }
+        return new AdaptiveRoundRobinScheduler();
+    }
+
     /**
      * At the very end: just print the final line like in sample outputs.
      */
     private void finishCurrentSimulation() {
         outputWriter.printf("--- Simulation finished at time %.1f ---%n", (double) currentTime);
         simulationActive = false;
+        if (whatIf != null) {
+            whatIf.checkBaselines(System.err);
+        }
     }
 
     // Handle A & D external events
@@ -202,13 +708,16 @@ public class SimulationController {
         }
 
         String eventType = parts[0];
+        long start = metrics.startTimer();
 
         switch (eventType) {
             case "A":
                 handleArrival(parts);
+                metrics.stopTimer(SimulationMetrics.EVENT_ARRIVAL, start);
                 break;
             case "D":
                 handleDisplay(parts);
+                metrics.stopTimer(SimulationMetrics.EVENT_DISPLAY, start);
                 break;
         }
     }
@@ -223,7 +732,42 @@ public class SimulationController {
             long burstTime = Long.parseLong(parts[5].split("=")[1]);
             int priority = Integer.parseInt(parts[6].split("=")[1]);
 
-            processManager.procArrivingRoutine(currentTime, PID, memoryReq, devReq, burstTime, priority);
+            // Optional fields: O= owner class (defaults to the priority class),
+            // B= CPU/I-O bursts cpu,io[@device],cpu,... (the CPU bursts replace R=)
+            int ownerClass = priority;
+            long[] bursts = null;
+            int[] ioDevices = null;
+            for (int i = 7; i < parts.length; i++) {
+                if (parts[i].startsWith("O=")) {
+                    ownerClass = Integer.parseInt(parts[i].substring(2));
+                } else if (parts[i].startsWith("B=")) {
+                    String[] items = parts[i].substring(2).split(",");
+                    if (items.length % 2 == 0) {
+                        throw new IllegalArgumentException("B= must start and end with a CPU burst");
+                    }
+                    bursts = new long[items.length];
+                    ioDevices = new int[items.length / 2];
+                    burstTime = 0;
+                    for (int k = 0; k < items.length; k++) {
+                        String item = items[k];
+                        if (k % 2 == 1) {
+                            int at = item.indexOf('@');
+                            ioDevices[k / 2] = at < 0 ? 0 : Integer.parseInt(item.substring(at + 1));
+                            if (at >= 0) item = item.substring(0, at);
+                        }
+                        bursts[k] = Long.parseLong(item);
+                        if (bursts[k] <= 0) {
+                            throw new IllegalArgumentException("Bursts must be positive");
+                        }
+                        if (k % 2 == 0) burstTime += bursts[k];
+                    }
+                }
+            }
+
+            processManager.procArrivingRoutine(currentTime, PID, memoryReq, devReq, burstTime,
+                    priority, ownerClass, bursts, ioDevices);
+        } catch (UncheckedIOException e) {
+            throw e;
         } catch (Exception e) {
             System.err.println("Error parsing arrival: " + String.join(" ", parts));
         }
@@ -231,14 +775,69 @@ public class SimulationController {
 
     private void handleDisplay(String[] parts) {
         if (parts.length < 2) return;
+        if (forkRun) return;
         // NOTE: We do NOT print "<< At time ..." to match doctor output
         processManager.displaySystemState(outputWriter);
+
+        if (whatIf != null) {
+            try {
+                whatIf.writeReport(outputWriter, currentTime, whatIf.evaluate(this));
+            } catch (IOException e) {
+                System.err.println("What-if evaluation failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Scenarios for --what-if; memory/devices scale the C line of the current epoch
+    private static List<WhatIfAnalysis.Scenario> defaultWhatIfScenarios() {
+        List<WhatIfAnalysis.Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new WhatIfAnalysis.Scenario("DynamicRR", 1, 1.0, 1.0));
+        scenarios.add(new WhatIfAnalysis.Scenario("StaticRR", 2, 1.0, 1.0));
+        scenarios.add(new WhatIfAnalysis.Scenario("memory x2", WhatIfAnalysis.Scenario.SAME_SCHEDULER, 2.0, 1.0));
+        scenarios.add(new WhatIfAnalysis.Scenario("devices x2", WhatIfAnalysis.Scenario.SAME_SCHEDULER, 1.0, 2.0));
+        return scenarios;
     }
 
     /**
      * Main: batch process all input*.txt in project folder.
      */
     public static void main(String[] args) {
+        // Optional: --checkpoint N (snapshot every N iterations), --resume, --metrics,
+        // --stream csv|bin (finished jobs to output*.txt.jobs.csv / .jobs.bin),
+        // --trace (CPU timeline to output*.txt.trace), --max-time T, --max-iterations N,
+        // --what-if (at each D: each RR variant, 2x memory, 2x devices),
+        // --pace U (real time: U simulated units per wall-clock second)
+        int checkpointEvery = 0;
+        boolean resume = false;
+        boolean withMetrics = false;
+        String streamFormat = null;
+        boolean withTrace = false;
+        long maxTime = -1;
+        long maxIterations = -1;
+        boolean withWhatIf = false;
+        double pace = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--checkpoint") && i + 1 < args.length) {
+                checkpointEvery = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--resume")) {
+                resume = true;
+            } else if (args[i].equals("--metrics")) {
+                withMetrics = true;
+            } else if (args[i].equals("--stream") && i + 1 < args.length) {
+                streamFormat = args[++i];
+            } else if (args[i].equals("--trace")) {
+                withTrace = true;
+            } else if (args[i].equals("--max-time") && i + 1 < args.length) {
+                maxTime = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--max-iterations") && i + 1 < args.length) {
+                maxIterations = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--what-if")) {
+                withWhatIf = true;
+            } else if (args[i].equals("--pace") && i + 1 < args.length) {
+                pace = Double.parseDouble(args[++i]);
+            }
+        }
+
         File projectDir = new File(System.getProperty("user.dir"));
         File[] inputFiles = projectDir.listFiles((dir, name) ->
                 name.toLowerCase().startsWith("input") &&
@@ -253,9 +852,47 @@ public class SimulationController {
         for (File inputFile : inputFiles) {
             String inputName = inputFile.getName();
             String outputName = inputName.replace("input", "output");
+            String snapshotName = outputName + ".snap";
             try {
-                new SimulationController(inputName, outputName).runSimulation();
+                SimulationController controller;
+                if (resume && new File(snapshotName).exists()) {
+                    controller = resume(inputName, outputName, snapshotName);
+                    System.out.println("Resuming " + inputName + " from " + snapshotName);
+                } else {
+                    controller = new SimulationController(inputName, outputName);
+                }
+                if (checkpointEvery > 0) {
+                    controller.enableCheckpoints(snapshotName, checkpointEvery);
+                }
+                if (withMetrics) {
+                    controller.enableMetrics();
+                }
+                if ("csv".equals(streamFormat)) {
+                    controller.enableCompletionStream(new CsvCompletionSink(outputName + ".jobs.csv",
+                            controller.getResumedSinkLength()));
+                } else if ("bin".equals(streamFormat)) {
+                    controller.enableCompletionStream(new BinaryCompletionSink(outputName + ".jobs.bin",
+                            controller.getResumedSinkLength()));
+                }
+                if (withTrace) {
+                    controller.enableTrace(new TraceRecorder(outputName + ".trace",
+                            controller.getResumedTraceLength()));
+                }
+                if (withWhatIf) {
+                    controller.enableWhatIf(new WhatIfAnalysis(defaultWhatIfScenarios()));
+                }
+                if (maxTime > 0 || maxIterations > 0) {
+                    controller.setLimits(maxTime > 0 ? maxTime : Long.MAX_VALUE,
+                            maxIterations > 0 ? maxIterations : Long.MAX_VALUE);
+                }
+                if (pace > 0) {
+                    controller.enablePacing(new PacedClock(pace));
+                }
+                controller.runSimulation();
                 System.out.println("Generated: " + outputName);
+                if (controller.getPacedClock() != null) {
+                    controller.getPacedClock().writeReport(new PrintWriter(System.out));
+                }
             } catch (Exception e) {
                 System.out.println("Failed on " + inputName + ": " + e.getMessage());
                 e.printStackTrace();
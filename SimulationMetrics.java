@@ -0,0 +1,212 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Hot-path counters and histograms for a simulation run.
+ * Every hook returns immediately when disabled, so PrManager can call them
+ * unconditionally; when enabled they only bump fields (no allocation).
+ * A counters-only instance skips the histograms and wall-clock timers.
+ */
+package os.simulator;
+
+import java.io.PrintWriter;
+
+public class SimulationMetrics {
+    // Event types for wall-clock timing
+    public static final int EVENT_INTERNAL = 0;
+    public static final int EVENT_ARRIVAL = 1;
+    public static final int EVENT_DISPLAY = 2;
+    public static final int EVENT_CONFIG = 3;
+    private static final String[] EVENT_NAMES = { "internal", "arrival", "display", "config" };
+
+    /** Shared no-op instance used when instrumentation is off. */
+    public static final SimulationMetrics DISABLED = new SimulationMetrics(false);
+
+    private final boolean enabled;
+    private final boolean detailed;     // histograms and timers as well as counters
+
+    private long dispatches;
+    private long contextSwitches;
+    private long quantumExpirations;
+    private long holdPromotions;
+    private long rejections;
+    private long completions;
+    private long ioRequests;
+    private Process lastDispatched;
+
+    // Ready queue depth: per-event samples plus a time-weighted average
+    private final Histogram readyDepth;
+    private final Histogram holdDepth;
+    private long depthArea;
+    private long depthStartTime = -1;
+    private long lastSampleTime;
+    private int lastReadyDepth;
+
+    private final Histogram quantum;
+    private final Histogram turnaround;
+    private final Histogram waiting;
+
+    private final Histogram[] eventNanos;
+    private final long[] eventTotalNanos = new long[EVENT_NAMES.length];
+
+    public SimulationMetrics(boolean enabled) {
+        this(enabled, enabled);
+    }
+
+    /**
+     * @param histograms false for counters only: the histogram getters then
+     *                   return null and the report has no distributions.
+     *                   A disabled instance never has histograms.
+     */
+    public SimulationMetrics(boolean enabled, boolean histograms) {
+        this.enabled = enabled;
+        this.detailed = enabled && histograms;
+        if (detailed) {
+            readyDepth = new Histogram("readyQ depth");
+            holdDepth = new Histogram("holdQ1+2 depth");
+            quantum = new Histogram("quantum");
+            turnaround = new Histogram("turnaround");
+            waiting = new Histogram("waiting");
+            eventNanos = new Histogram[EVENT_NAMES.length];
+            for (int i = 0; i < EVENT_NAMES.length; i++) {
+                eventNanos[i] = new Histogram(EVENT_NAMES[i] + " ns");
+            }
+        } else {
+            readyDepth = holdDepth = quantum = turnaround = waiting = null;
+            eventNanos = null;
+        }
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public void onDispatch(Process process, int timeQuantum) {
+        if (!enabled) return;
+        dispatches++;
+        if (process != lastDispatched) {
+            contextSwitches++;
+            lastDispatched = process;
+        }
+        if (detailed) quantum.record(timeQuantum);
+    }
+
+    public void onQuantumExpiration() {
+        if (!enabled) return;
+        quantumExpirations++;
+    }
+
+    public void onHoldPromotion() {
+        if (!enabled) return;
+        holdPromotions++;
+    }
+
+    public void onRejection() {
+        if (!enabled) return;
+        rejections++;
+    }
+
+    public void onIoRequest() {
+        if (!enabled) return;
+        ioRequests++;
+    }
+
+    /**
+     * Same turnaround/waiting definitions as PrManager.displayFinishedJobs.
+     */
+    public void onCompletion(Process process) {
+        if (!enabled) return;
+        completions++;
+        if (!detailed) return;
+        long turnaroundTime = process.getCompletionTime() - process.getArrivalTime();
+        long waitingTime = turnaroundTime - process.getBurstTime() - process.getIoTime();
+        turnaround.record(turnaroundTime);
+        waiting.record(Math.max(0, waitingTime));
+    }
+
+    /**
+     * Sample queue depths after an event at simulated time `now`.
+     */
+    public void sampleQueues(long now, int readyDepthNow, int holdDepthNow) {
+        if (!enabled) return;
+        if (depthStartTime < 0) {
+            depthStartTime = now;
+        } else if (now > lastSampleTime) {
+            depthArea += (long) lastReadyDepth * (now - lastSampleTime);
+        }
+        lastSampleTime = Math.max(lastSampleTime, now);
+        lastReadyDepth = readyDepthNow;
+        if (detailed) {
+            readyDepth.record(readyDepthNow);
+            holdDepth.record(holdDepthNow);
+        }
+    }
+
+    /** Start a wall-clock measurement; pair with stopTimer. */
+    public long startTimer() {
+        return detailed ? System.nanoTime() : 0;
+    }
+
+    public void stopTimer(int eventType, long start) {
+        if (!detailed) return;
+        long elapsed = System.nanoTime() - start;
+        eventNanos[eventType].record(elapsed);
+        eventTotalNanos[eventType] += elapsed;
+    }
+
+    // Getters
+    public long getDispatches() { return dispatches; }
+    public long getContextSwitches() { return contextSwitches; }
+    public long getQuantumExpirations() { return quantumExpirations; }
+    public long getHoldPromotions() { return holdPromotions; }
+    public long getRejections() { return rejections; }
+    public long getCompletions() { return completions; }
+    public long getIoRequests() { return ioRequests; }
+    public Histogram getTurnaround() { return turnaround; }
+    public Histogram getWaiting() { return waiting; }
+    public Histogram getReadyDepth() { return readyDepth; }
+
+    public double getTimeWeightedReadyDepth() {
+        long span = lastSampleTime - depthStartTime;
+        return span <= 0 ? 0.0 : (double) depthArea / span;
+    }
+
+    /**
+     * Export everything collected so far as a plain-text report.
+     */
+    public void writeReport(PrintWriter output) {
+        output.println("Simulation Metrics");
+        output.println("--------------------------------------------------------");
+        output.printf("Dispatches:               %d%n", dispatches);
+        output.printf("Context Switches:         %d%n", contextSwitches);
+        output.printf("Quantum Expirations:      %d%n", quantumExpirations);
+        output.printf("Hold Promotions:          %d%n", holdPromotions);
+        output.printf("Rejections:               %d%n", rejections);
+        output.printf("Completions:              %d%n", completions);
+        output.printf("I/O Requests:             %d%n", ioRequests);
+        output.printf("Avg ReadyQ Depth (time):  %.2f%n", getTimeWeightedReadyDepth());
+        output.println();
+        if (turnaround == null) return;
+
+        output.println("Distributions");
+        output.println("--------------------------------------------------------");
+        turnaround.writeSummary(output);
+        waiting.writeSummary(output);
+        quantum.writeSummary(output);
+        readyDepth.writeSummary(output);
+        holdDepth.writeSummary(output);
+        output.println();
+
+        output.println("Wall-clock per event type");
+        output.println("--------------------------------------------------------");
+        for (int i = 0; i < EVENT_NAMES.length; i++) {
+            output.printf("%-10s total=%.3f ms%n", EVENT_NAMES[i], eventTotalNanos[i] / 1e6);
+            eventNanos[i].writeSummary(output);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Structured outcome of a HeadlessSimulation run:
+ * - per-job records in completion order (columns indexed 0..getJobCount()-1),
+ * - aggregates over all C epochs,
+ * - optionally the ReadyQ / hold queue depth over time (one point per change).
+ * Waiting time follows PrManager: turnaround - CPU - I/O service, floored at 0.
+ * Rejections, context switches and I/O requests are always counted; the
+ * SimulationMetrics histograms only when requested.
+ */
+package os.simulator;
+
+import java.util.Arrays;
+
+public class SimulationResult {
+    // Per-job columns
+    private long[] pids = new long[64];
+    private long[] arrivals = new long[64];
+    private long[] completions = new long[64];
+    private long[] turnarounds = new long[64];
+    private long[] waitings = new long[64];
+    private int[] epochs = new int[64];
+    private int jobCount;
+    private long totalTurnaround;
+    private long totalWaiting;
+    private long maxTurnaround;
+
+    // Totals over epochs
+    private int epochCount;
+    private long cpuBusyTime;
+    private long elapsedTime;
+    private long endTime;
+    private long iterations;
+    private boolean limitReached;
+
+    // Queue depth series (null when not recorded)
+    private long[] depthTimes;
+    private int[] readyDepths;
+    private int[] holdDepths;
+    private int depthSamples;
+
+    private final SimulationMetrics metrics;
+    private final boolean histograms;
+
+    SimulationResult(boolean recordQueueDepth, boolean recordHistograms) {
+        this.metrics = new SimulationMetrics(true, recordHistograms);
+        this.histograms = recordHistograms;
+        if (recordQueueDepth) {
+            depthTimes = new long[64];
+            readyDepths = new int[64];
+            holdDepths = new int[64];
+        }
+    }
+
+    void addJob(long PID, long arrival, long completion, long turnaround, long waiting) {
+        if (jobCount == pids.length) {
+            int capacity = jobCount * 2;
+            pids = Arrays.copyOf(pids, capacity);
+            arrivals = Arrays.copyOf(arrivals, capacity);
+            completions = Arrays.copyOf(completions, capacity);
+            turnarounds = Arrays.copyOf(turnarounds, capacity);
+            waitings = Arrays.copyOf(waitings, capacity);
+            epochs = Arrays.copyOf(epochs, capacity);
+        }
+        pids[jobCount] = PID;
+        arrivals[jobCount] = arrival;
+        completions[jobCount] = completion;
+        turnarounds[jobCount] = turnaround;
+        waitings[jobCount] = waiting;
+        epochs[jobCount] = epochCount;
+        jobCount++;
+        totalTurnaround += turnaround;
+        totalWaiting += waiting;
+        maxTurnaround = Math.max(maxTurnaround, turnaround);
+    }
+
+    void addEpoch(long busy, long elapsed) {
+        cpuBusyTime += busy;
+        elapsedTime += elapsed;
+        epochCount++;
+    }
+
+    // Only changes are kept, so long idle stretches cost nothing
+    void sampleDepth(long time, int ready, int hold) {
+        if (depthTimes == null) return;
+        if (depthSamples > 0 && readyDepths[depthSamples - 1] == ready
+                && holdDepths[depthSamples - 1] == hold) {
+            return;
+        }
+        if (depthSamples > 0 && depthTimes[depthSamples - 1] == time) {
+            readyDepths[depthSamples - 1] = ready;
+            holdDepths[depthSamples - 1] = hold;
+            return;
+        }
+        if (depthSamples == depthTimes.length) {
+            int capacity = depthSamples * 2;
+            depthTimes = Arrays.copyOf(depthTimes, capacity);
+            readyDepths = Arrays.copyOf(readyDepths, capacity);
+            holdDepths = Arrays.copyOf(holdDepths, capacity);
+        }
+        depthTimes[depthSamples] = time;
+        readyDepths[depthSamples] = ready;
+        holdDepths[depthSamples] = hold;
+        depthSamples++;
+    }
+
+    void finish(long endTime, long iterations, boolean limitReached) {
+        this.endTime = endTime;
+        this.iterations = iterations;
+        this.limitReached = limitReached;
+    }
+
+    SimulationMetrics metrics() { return metrics; }
+
+    // Per-job records
+    public int getJobCount() { return jobCount; }
+    public long getPID(int job) { return pids[check(job)]; }
+    public long getArrivalTime(int job) { return arrivals[check(job)]; }
+    public long getCompletionTime(int job) { return completions[check(job)]; }
+    public long getTurnaroundTime(int job) { return turnarounds[check(job)]; }
+    public long getWaitingTime(int job) { return waitings[check(job)]; }
+    /** Index of the C epoch the job ran in (0 = first C event). */
+    public int getEpoch(int job) { return epochs[check(job)]; }
+
+    private int check(int job) {
+        if (job < 0 || job >= jobCount) {
+            throw new IndexOutOfBoundsException("job " + job + " of " + jobCount);
+        }
+        return job;
+    }
+
+    // Aggregates
+    public double getAverageTurnaround() { return jobCount == 0 ? 0.0 : (double) totalTurnaround / jobCount; }
+    public double getAverageWaiting() { return jobCount == 0 ? 0.0 : (double) totalWaiting / jobCount; }
+    public long getMaxTurnaround() { return maxTurnaround; }
+    public int getEpochCount() { return epochCount; }
+    public long getCpuBusyTime() { return cpuBusyTime; }
+    /** Simulated time from the first event to the last, summed over epochs. */
+    public long getElapsedTime() { return elapsedTime; }
+    public double getCpuUtilization() { return elapsedTime <= 0 ? 0.0 : (double) cpuBusyTime / elapsedTime; }
+    /** Finished jobs per simulated time unit. */
+    public double getThroughput() { return elapsedTime <= 0 ? 0.0 : (double) jobCount / elapsedTime; }
+    public long getEndTime() { return endTime; }
+    public long getIterations() { return iterations; }
+    /** True if the run stopped at the time or iteration limit with work left. */
+    public boolean isLimitReached() { return limitReached; }
+    public long getRejections() { return metrics.getRejections(); }
+    public long getContextSwitches() { return metrics.getContextSwitches(); }
+    public long getIoRequests() { return metrics.getIoRequests(); }
+    public boolean hasMetrics() { return histograms; }
+
+    /** Counters and histograms (percentiles of turnaround, waiting, quantum, depths). */
+    public SimulationMetrics getMetrics() {
+        if (!histograms) {
+            throw new IllegalStateException("Metrics were not recorded");
+        }
+        return metrics;
+    }
+
+    // Queue depth series
+    public boolean hasQueueDepth() { return depthTimes != null; }
+    public int getDepthSamples() { return depthSamples; }
+    public long getDepthTime(int sample) { return depthTimes[checkSample(sample)]; }
+    public int getReadyDepth(int sample) { return readyDepths[checkSample(sample)]; }
+    public int getHoldDepth(int sample) { return holdDepths[checkSample(sample)]; }
+
+    private int checkSample(int sample) {
+        if (depthTimes == null) {
+            throw new IllegalStateException("Queue depth was not recorded");
+        }
+        if (sample < 0 || sample >= depthSamples) {
+            throw new IndexOutOfBoundsException("sample " + sample + " of " + depthSamples);
+        }
+        return sample;
+    }
+}
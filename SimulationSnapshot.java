@@ -0,0 +1,179 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Checkpoint file format.
+ * Header = magic, version, body length, CRC32 of body; body is filled in by
+ * SimulationController, OtherKerServices and PrManager (big-endian, no padding).
+ */
+package os.simulator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+final class SimulationSnapshot {
+    static final int MAGIC = 0x4F53534E; // "OSSN"
+    static final int VERSION = 7;
+    static final int HEADER_BYTES = 4 + 4 + 4 + 8;
+
+    // Scheduler kinds stored in the snapshot (same numbers as SCHED= in C lines)
+    static final byte SCHED_DYNAMIC = 1;
+    static final byte SCHED_STATIC = 2;
+    static final byte SCHED_ADAPTIVE = 3;
+    static final byte SCHED_FAIR_SHARE = 4;
+
+    private SimulationSnapshot() { }
+
+    /**
+     * Cut a file the run appends to (output, completion stream, trace) back to the
+     * length it had at the checkpoint; the resumed run appends from there.
+     */
+    static void truncate(Path file, long length, String what) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE)) {
+            if (ch.size() < length) {
+                throw new IOException(what + " shorter than snapshot offset: " + file);
+            }
+            ch.truncate(length);
+        }
+    }
+
+    static byte schedulerKind(Scheduler scheduler) {
+        if (scheduler instanceof SRoundRobinScheduler) return SCHED_STATIC;
+        if (scheduler instanceof AdaptiveRoundRobinScheduler) return SCHED_ADAPTIVE;
+        if (scheduler instanceof FairShareScheduler) return SCHED_FAIR_SHARE;
+        return SCHED_DYNAMIC;
+    }
+
+    static Scheduler newScheduler(byte kind) {
+        if (kind == SCHED_STATIC) return new SRoundRobinScheduler();
+        if (kind == SCHED_ADAPTIVE) return new AdaptiveRoundRobinScheduler();
+        if (kind == SCHED_FAIR_SHARE) return new FairShareScheduler();
+        return new DRoundRobinScheduler();
+    }
+
+    /**
+     * New scheduler with the same kind and settings; estimator state is copied
+     * separately (PrManager.fork).
+     */
+    static Scheduler sameKind(Scheduler scheduler) {
+        if (scheduler instanceof AdaptiveRoundRobinScheduler) {
+            AdaptiveRoundRobinScheduler a = (AdaptiveRoundRobinScheduler) scheduler;
+            return new AdaptiveRoundRobinScheduler(a.getMode(), a.getTarget(), a.getPercentile());
+        }
+        if (scheduler instanceof FairShareScheduler) {
+            FairShareScheduler f = (FairShareScheduler) scheduler;
+            return new FairShareScheduler(f.getQuantum(), f.getWeights());
+        }
+        return newScheduler(schedulerKind(scheduler));
+    }
+
+    // Kind byte, plus the settings of an adaptive or fair-share scheduler
+    // (fair-share weights travel with its class state in PrManager's section)
+    static int schedulerBytes(Scheduler scheduler) {
+        if (scheduler instanceof AdaptiveRoundRobinScheduler) return 1 + 4 + 8 + 8;
+        if (scheduler instanceof FairShareScheduler) return 1 + 4;
+        return 1;
+    }
+
+    static void writeScheduler(ByteBuffer buf, Scheduler scheduler) {
+        buf.put(schedulerKind(scheduler));
+        if (scheduler instanceof AdaptiveRoundRobinScheduler) {
+            AdaptiveRoundRobinScheduler a = (AdaptiveRoundRobinScheduler) scheduler;
+            buf.putInt(a.getMode()).putDouble(a.getTarget()).putDouble(a.getPercentile());
+        } else if (scheduler instanceof FairShareScheduler) {
+            buf.putInt(((FairShareScheduler) scheduler).getQuantum());
+        }
+    }
+
+    static Scheduler readScheduler(ByteBuffer buf) {
+        byte kind = buf.get();
+        if (kind == SCHED_ADAPTIVE) {
+            return new AdaptiveRoundRobinScheduler(buf.getInt(), buf.getDouble(), buf.getDouble());
+        }
+        if (kind == SCHED_FAIR_SHARE) {
+            return new FairShareScheduler(buf.getInt(), java.util.Collections.emptyMap());
+        }
+        return newScheduler(kind);
+    }
+
+    /**
+     * Write header + body to a temp file, then move it over the old snapshot
+     * so a crash while writing never leaves a half-written checkpoint behind.
+     */
+    static void write(File file, ByteBuffer body) throws IOException {
+        body.flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(body.remaining()).putLong(crc.getValue());
+        header.flip();
+
+        Path target = file.toPath();
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] parts = { header, body };
+            while (body.hasRemaining()) {
+                ch.write(parts);
+            }
+            ch.force(false);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Read and validate a snapshot; returns the body ready for reading.
+     */
+    static ByteBuffer read(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(ch, header);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a simulation snapshot: " + file);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            int length = header.getInt();
+            long expectedCrc = header.getLong();
+
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(ch, body);
+
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("Corrupt snapshot (CRC mismatch): " + file);
+            }
+            return body;
+        }
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0) {
+                throw new IOException("Truncated snapshot");
+            }
+        }
+        buf.flip();
+    }
+}
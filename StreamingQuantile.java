@@ -0,0 +1,129 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * P-square streaming quantile estimator (Jain & Chlamtac).
+ * Tracks one quantile with five markers: O(1) time and memory per value.
+ */
+package os.simulator;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class StreamingQuantile {
+    static final int SNAPSHOT_BYTES = 8 + 5 * 8 * 3;
+
+    private final double p;
+    private final double[] height = new double[5];
+    private final double[] position = new double[5];
+    private final double[] desired = new double[5];
+    private final double[] increment;
+    private final double[] scratch = new double[5];
+    private long count;
+
+    public StreamingQuantile(double p) {
+        this.p = p;
+        this.increment = new double[] { 0, p / 2, p, (1 + p) / 2, 1 };
+    }
+
+    public void add(double x) {
+        if (count < 5) {
+            height[(int) count++] = x;
+            if (count == 5) {
+                Arrays.sort(height);
+                for (int i = 0; i < 5; i++) position[i] = i + 1;
+                desired[0] = 1;
+                desired[1] = 1 + 2 * p;
+                desired[2] = 1 + 4 * p;
+                desired[3] = 3 + 2 * p;
+                desired[4] = 5;
+            }
+            return;
+        }
+        count++;
+
+        int k;
+        if (x < height[0]) {
+            height[0] = x;
+            k = 0;
+        } else if (x >= height[4]) {
+            height[4] = x;
+            k = 3;
+        } else {
+            k = 0;
+            while (x >= height[k + 1]) k++;
+        }
+
+        for (int i = k + 1; i < 5; i++) position[i]++;
+        for (int i = 0; i < 5; i++) desired[i] += increment[i];
+
+        // Move the three middle markers towards their desired positions
+        for (int i = 1; i <= 3; i++) {
+            double d = desired[i] - position[i];
+            if ((d >= 1 && position[i + 1] - position[i] > 1)
+                    || (d <= -1 && position[i - 1] - position[i] < -1)) {
+                int step = d > 0 ? 1 : -1;
+                double candidate = parabolic(i, step);
+                if (height[i - 1] < candidate && candidate < height[i + 1]) {
+                    height[i] = candidate;
+                } else {
+                    height[i] += step * (height[i + step] - height[i])
+                            / (position[i + step] - position[i]);
+                }
+                position[i] += step;
+            }
+        }
+    }
+
+    private double parabolic(int i, int d) {
+        double n0 = position[i - 1], n1 = position[i], n2 = position[i + 1];
+        return height[i] + d / (n2 - n0)
+                * ((n1 - n0 + d) * (height[i + 1] - height[i]) / (n2 - n1)
+                + (n2 - n1 - d) * (height[i] - height[i - 1]) / (n1 - n0));
+    }
+
+    /** Current estimate; 0 before the first value. */
+    public double getQuantile() {
+        if (count == 0) return 0;
+        if (count < 5) {
+            int n = (int) count;
+            System.arraycopy(height, 0, scratch, 0, n);
+            Arrays.sort(scratch, 0, n);
+            return scratch[(int) Math.min(n - 1, Math.floor(p * n))];
+        }
+        return height[2];
+    }
+
+    public long getCount() { return count; }
+
+    /** Copy the markers of another estimator for the same quantile. */
+    void copyFrom(StreamingQuantile other) {
+        count = other.count;
+        System.arraycopy(other.height, 0, height, 0, 5);
+        System.arraycopy(other.position, 0, position, 0, 5);
+        System.arraycopy(other.desired, 0, desired, 0, 5);
+    }
+
+    void writeSnapshot(ByteBuffer buf) {
+        buf.putLong(count);
+        for (int i = 0; i < 5; i++) {
+            buf.putDouble(height[i]).putDouble(position[i]).putDouble(desired[i]);
+        }
+    }
+
+    void readSnapshot(ByteBuffer buf) {
+        count = buf.getLong();
+        for (int i = 0; i < 5; i++) {
+            height[i] = buf.getDouble();
+            position[i] = buf.getDouble();
+            desired[i] = buf.getDouble();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * CPU timeline recorder (Gantt trace).
+ * Records are 24 bytes: time (long), PID (long), event type (int), argument (int).
+ * The simulation thread fills one buffer of a fixed ring; full buffers are
+ * written to disk by a background thread and then handed back. If the writer
+ * falls behind the simulation waits for a free buffer, so heap use is bounded
+ * and no record is ever dropped.
+ */
+package os.simulator;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+public class TraceRecorder implements Closeable {
+    public static final int RECORD_BYTES = 8 + 8 + 4 + 4;
+
+    // Event types
+    public static final int DISPATCH = 0;      // arg = quantum chosen by the scheduler
+    public static final int PREEMPT = 1;       // quantum expired, back to ReadyQ
+    public static final int COMPLETE = 2;
+    public static final int HOLD = 3;          // arg = hold queue (1 or 2)
+    public static final int READY = 4;         // admitted or promoted to ReadyQ
+    public static final int REJECT = 5;
+    public static final int IO_START = 6;      // left the CPU for I/O, arg = device
+    public static final int IO_DONE = 7;       // I/O finished, back to ReadyQ, arg = device
+    private static final String[] TYPE_NAMES =
+            { "DISPATCH", "PREEMPT", "COMPLETE", "HOLD", "READY", "REJECT", "IO_START", "IO_DONE" };
+
+    private static final int DEFAULT_BUFFERS = 4;
+    private static final int DEFAULT_RECORDS_PER_BUFFER = 16 * 1024;
+
+    private final FileChannel channel;
+    private final BlockingQueue<ByteBuffer> free;
+    private final BlockingQueue<ByteBuffer> full;
+    private final Thread writer;
+    private ByteBuffer current;
+    private volatile IOException writeError;
+    private long records;
+    private long stalls;
+    private boolean closed;
+
+    // Marks the end of the stream for the writer thread
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+    // Asks the writer to signal `synced` once everything queued before it is written
+    private static final ByteBuffer SYNC = ByteBuffer.allocate(0);
+    private final Semaphore synced = new Semaphore(0);
+
+    public TraceRecorder(String fileName) throws IOException {
+        this(fileName, DEFAULT_BUFFERS, DEFAULT_RECORDS_PER_BUFFER);
+    }
+
+    /**
+     * Continue a trace after a resume: the file is cut back to `resumeLength`
+     * (the length stored in the checkpoint) and appended to. -1 starts a new file.
+     */
+    public TraceRecorder(String fileName, long resumeLength) throws IOException {
+        this(fileName, DEFAULT_BUFFERS, DEFAULT_RECORDS_PER_BUFFER, resumeLength);
+    }
+
+    public TraceRecorder(String fileName, int buffers, int recordsPerBuffer) throws IOException {
+        this(fileName, buffers, recordsPerBuffer, -1);
+    }
+
+    public TraceRecorder(String fileName, int buffers, int recordsPerBuffer, long resumeLength)
+            throws IOException {
+        if (buffers < 2) {
+            throw new IllegalArgumentException("Trace ring needs at least 2 buffers");
+        }
+        if (resumeLength >= 0) {
+            SimulationSnapshot.truncate(Paths.get(fileName), resumeLength, "Trace");
+            this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } else {
+            this.channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+        this.free = new ArrayBlockingQueue<>(buffers);
+        this.full = new ArrayBlockingQueue<>(buffers + 1);
+        for (int i = 0; i < buffers - 1; i++) {
+            free.add(ByteBuffer.allocateDirect(recordsPerBuffer * RECORD_BYTES));
+        }
+        this.current = ByteBuffer.allocateDirect(recordsPerBuffer * RECORD_BYTES);
+
+        this.writer = new Thread(this::drain, "trace-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void record(long time, int type, long PID, int arg) {
+        if (!current.hasRemaining()) {
+            handOff();
+        }
+        current.putLong(time).putLong(PID).putInt(type).putInt(arg);
+        records++;
+    }
+
+    private void handOff() {
+        current.flip();
+        putUninterruptibly(full, current);
+        ByteBuffer next = free.poll();
+        if (next == null) {
+            stalls++;
+            next = takeUninterruptibly(free);
+        }
+        current = next;
+    }
+
+    private void drain() {
+        while (true) {
+            ByteBuffer buf = takeUninterruptibly(full);
+            if (buf == END) {
+                return;
+            }
+            if (buf == SYNC) {
+                synced.release();
+                continue;
+            }
+            try {
+                if (writeError == null) {
+                    while (buf.hasRemaining()) {
+                        channel.write(buf);
+                    }
+                }
+            } catch (IOException e) {
+                writeError = e;
+            }
+            buf.clear();
+            putUninterruptibly(free, buf);
+        }
+    }
+
+    /**
+     * Write out every record so far and return the file length, for
+     * checkpoints. Waits for the writer thread.
+     */
+    public long checkpoint() throws IOException {
+        handOff();
+        putUninterruptibly(full, SYNC);
+        synced.acquireUninterruptibly();
+        if (writeError != null) {
+            throw writeError;
+        }
+        return channel.size();
+    }
+
+    public long getRecordCount() { return records; }
+
+    /** Number of times the simulation had to wait for the writer. */
+    public long getStallCount() { return stalls; }
+
+    /**
+     * Flush what is left, wait for the writer and close the file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+
+        current.flip();
+        putUninterruptibly(full, current);
+        putUninterruptibly(full, END);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+
+        channel.close();
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    private static <T> void putUninterruptibly(BlockingQueue<T> queue, T item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private static <T> T takeUninterruptibly(BlockingQueue<T> queue) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queue.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Print a binary trace as a readable timeline.
+     */
+    public static void dump(String fileName, PrintWriter output) throws IOException {
+        try (FileChannel ch = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(RECORD_BYTES * 4096);
+            output.println("      Time   Event       PID    Arg");
+            output.println("--------------------------------------------------------");
+            while (true) {
+                int n = ch.read(buf);
+                buf.flip();
+                while (buf.remaining() >= RECORD_BYTES) {
+                    long time = buf.getLong();
+                    long pid = buf.getLong();
+                    int type = buf.getInt();
+                    int arg = buf.getInt();
+                    String name = type >= 0 && type < TYPE_NAMES.length ? TYPE_NAMES[type] : "?" + type;
+                    output.printf("%10d   %-9s %5d %6d%n", time, name, pid, arg);
+                }
+                buf.compact();
+                if (n < 0) break;
+            }
+        }
+        output.flush();
+    }
+
+    /**
+     * Usage: java os.simulator.TraceRecorder output1.txt.trace
+     */
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        if (args.length < 1) {
+            System.out.println("Usage: TraceRecorder <trace file>");
+            return;
+        }
+        dump(args[0], new PrintWriter(new OutputStreamWriter(System.out)));
+    }
+}
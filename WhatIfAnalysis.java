@@ -0,0 +1,245 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Speculative what-if evaluation at a D event.
+ * The live state is forked once per scenario (plus an unchanged baseline),
+ * each fork replays the rest of the current configuration in parallel on a
+ * fork/join pool, and the turnaround/waiting of jobs finishing after the
+ * fork point are compared against the baseline.
+ *
+ * The baseline must reproduce the real run: when the real run ends the
+ * configuration, checkBaselines() compares each baseline with the jobs that
+ * actually finished after its fork point.
+ */
+package os.simulator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class WhatIfAnalysis {
+
+    /**
+     * One alternative continuation.
+     */
+    public static class Scenario {
+        public static final int SAME_SCHEDULER = 0;
+
+        private final String name;
+        private final int schedulerType;   // SCHED= value, or SAME_SCHEDULER
+        private final double memoryScale;  // 1.0 = memory of the current config
+        private final double deviceScale;
+
+        public Scenario(String name, int schedulerType, double memoryScale, double deviceScale) {
+            this.name = name;
+            this.schedulerType = schedulerType;
+            this.memoryScale = memoryScale;
+            this.deviceScale = deviceScale;
+        }
+
+        public String getName() { return name; }
+        public int getSchedulerType() { return schedulerType; }
+        public double getMemoryScale() { return memoryScale; }
+        public double getDeviceScale() { return deviceScale; }
+    }
+
+    /**
+     * Result of one continuation (jobs finishing after the fork point).
+     */
+    public static class Outcome {
+        private final String name;
+        private final long finished;
+        private final double avgTurnaround;
+        private final double avgWaiting;
+        private final long totalTurnaround;
+        private final long totalWaiting;
+
+        Outcome(String name, Tally tally) {
+            this.name = name;
+            this.finished = tally.count;
+            this.totalTurnaround = tally.turnaround;
+            this.totalWaiting = tally.waiting;
+            this.avgTurnaround = tally.count == 0 ? 0.0 : (double) tally.turnaround / tally.count;
+            this.avgWaiting = tally.count == 0 ? 0.0 : (double) tally.waiting / tally.count;
+        }
+
+        public String getName() { return name; }
+        public long getFinished() { return finished; }
+        public double getAvgTurnaround() { return avgTurnaround; }
+        public double getAvgWaiting() { return avgWaiting; }
+    }
+
+    // Completion sink that only keeps sums
+    private static class Tally implements CompletionSink {
+        long count;
+        long turnaround;
+        long waiting;
+
+        @Override
+        public void jobCompleted(long PID, long arrivalTime, long completionTime,
+                                 long turnaroundTime, long waitingTime) {
+            count++;
+            turnaround += turnaroundTime;
+            waiting += waitingTime;
+        }
+
+        @Override
+        public void close() { }
+    }
+
+    // Real-run sink: counts completions and passes them on (keeps finished
+    // jobs in the table unless the downstream sink evicts them)
+    private static class RunTally implements CompletionSink {
+        final Tally counts = new Tally();
+        CompletionSink downstream;
+
+        @Override
+        public void jobCompleted(long PID, long arrivalTime, long completionTime,
+                                 long turnaroundTime, long waitingTime) throws IOException {
+            counts.jobCompleted(PID, arrivalTime, completionTime, turnaroundTime, waitingTime);
+            if (downstream != null) {
+                downstream.jobCompleted(PID, arrivalTime, completionTime, turnaroundTime, waitingTime);
+            }
+        }
+
+        @Override
+        public boolean evictsFinishedJobs() {
+            return downstream != null && downstream.evictsFinishedJobs();
+        }
+
+        // The controller closes the downstream sink itself
+        @Override
+        public void close() { }
+    }
+
+    // A baseline waiting for the real run to reach the end of the configuration
+    private static class PendingCheck {
+        final long forkTime;
+        final Outcome baseline;
+        final long count;
+        final long turnaround;
+        final long waiting;
+
+        PendingCheck(long forkTime, Outcome baseline, Tally run) {
+            this.forkTime = forkTime;
+            this.baseline = baseline;
+            this.count = run.count;
+            this.turnaround = run.turnaround;
+            this.waiting = run.waiting;
+        }
+    }
+
+    private final List<Scenario> scenarios;
+    private final ForkJoinPool pool;
+    private final RunTally run = new RunTally();
+    private final List<PendingCheck> pending = new ArrayList<>();
+    private long baselineMismatches;
+
+    public WhatIfAnalysis(List<Scenario> scenarios) {
+        this(scenarios, ForkJoinPool.commonPool());
+    }
+
+    public WhatIfAnalysis(List<Scenario> scenarios, ForkJoinPool pool) {
+        this.scenarios = new ArrayList<>(scenarios);
+        this.pool = pool;
+    }
+
+    /**
+     * Fork the controller's current state and run baseline + every scenario
+     * to the end of the current configuration. Element 0 is the baseline.
+     */
+    public List<Outcome> evaluate(SimulationController controller) throws IOException {
+        long forkTime = controller.getCurrentTime();
+        List<Scenario> all = new ArrayList<>();
+        all.add(new Scenario("baseline", Scenario.SAME_SCHEDULER, 1.0, 1.0));
+        all.addAll(scenarios);
+
+        // Forks are taken on the caller's thread, before anything runs
+        List<Callable<Outcome>> tasks = new ArrayList<>();
+        for (Scenario scenario : all) {
+            Tally tally = new Tally();
+            SimulationController fork = controller.forkContinuation(scenario, tally);
+            tasks.add(() -> {
+                fork.runSimulation();
+                return new Outcome(scenario.getName(), tally);
+            });
+        }
+
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> future : pool.invokeAll(tasks)) {
+            try {
+                outcomes.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("What-if evaluation interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException("What-if scenario failed", e.getCause());
+            }
+        }
+        pending.add(new PendingCheck(forkTime, outcomes.get(0), run.counts));
+        return outcomes;
+    }
+
+    /**
+     * Sink for the real run's process manager; completions are passed on to
+     * `downstream` (may be null) and counted for checkBaselines().
+     */
+    CompletionSink observe(CompletionSink downstream) {
+        run.downstream = downstream;
+        return run;
+    }
+
+    /**
+     * Called when the real run ends a configuration: every baseline taken
+     * since must match the jobs the run finished after its fork point.
+     * Mismatches are reported to `report` and counted.
+     */
+    int checkBaselines(PrintStream report) {
+        int mismatches = 0;
+        for (PendingCheck check : pending) {
+            long count = run.counts.count - check.count;
+            long turnaround = run.counts.turnaround - check.turnaround;
+            long waiting = run.counts.waiting - check.waiting;
+            Outcome base = check.baseline;
+            if (count != base.finished || turnaround != base.totalTurnaround
+                    || waiting != base.totalWaiting) {
+                mismatches++;
+                report.printf("What-if baseline from time %.2f does not match the run: "
+                                + "%d jobs (turnaround %d, waiting %d) vs %d (turnaround %d, waiting %d)%n",
+                        (double) check.forkTime, base.finished, base.totalTurnaround, base.totalWaiting,
+                        count, turnaround, waiting);
+            }
+        }
+        pending.clear();
+        baselineMismatches += mismatches;
+        return mismatches;
+    }
+
+    public long getBaselineMismatches() { return baselineMismatches; }
+
+    public void writeReport(PrintWriter output, long forkTime, List<Outcome> outcomes) {
+        Outcome base = outcomes.get(0);
+        output.printf("What-if from time %.2f (jobs finishing before next config)%n", (double) forkTime);
+        output.println("------------------------------------------------------------------------");
+        output.println("  Scenario          Finished   Avg Turnaround   Avg Waiting   dTurn     dWait");
+        output.println("------------------------------------------------------------------------");
+        for (Outcome o : outcomes) {
+            output.printf("  %-16s %9d   %14.2f   %11.2f   %+7.2f  %+7.2f%n",
+                    o.getName(), o.getFinished(), o.getAvgTurnaround(), o.getAvgWaiting(),
+                    o.getAvgTurnaround() - base.getAvgTurnaround(),
+                    o.getAvgWaiting() - base.getAvgWaiting());
+        }
+        output.println();
+        output.println();
+    }
+}
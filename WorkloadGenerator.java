@@ -0,0 +1,350 @@
+/**
+ * Operating Systems Scheduling Simulator
+ * CPCS361 Group Project
+ *
+ * Team Members:
+ * - Fatimah Saleh Baothman (2307298)
+ * - Rafal Abdullah Riri (2308220)
+ * - Sidrah Faisal Alyamani (2311603)
+ *
+ */
+/**
+ * Seeded synthetic workload generator for scale testing.
+ * - Arrivals: Poisson, or bursty (two-state on/off modulated Poisson).
+ * - Burst times: bounded Pareto (heavy tail).
+ * - Memory / devices: uniform ranges; priority 1 with a given probability.
+ * Events come out one at a time (EventSource cursor or C/A/D text), so any trace
+ * length is generated in constant memory. Same seed + settings = same trace.
+ */
+package os.simulator;
+
+import java.io.*;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+public class WorkloadGenerator implements EventSource {
+    private final long seed;
+    private SplittableRandom random;
+
+    // Configuration (defaults give a small, moderately loaded system)
+    private long memorySize = 200;
+    private int devices = 12;
+    private int schedulerType = 1;
+    private long arrivalsPerEpoch = 1000;
+    private int epochs = 1;
+    private long epochGap = 1000;
+    private long displayInterval = 0;        // 0 = one D at the end of each epoch
+    private double meanInterarrival = 5.0;
+    private boolean bursty = false;
+    private double burstRateFactor = 10.0;   // arrival rate multiplier while bursting
+    private double burstSwitchProbability = 0.05;
+    private double paretoAlpha = 1.5;
+    private long minBurst = 1;
+    private long maxBurst = 500;
+    private long minMemory = 1;
+    private long maxMemory = 100;
+    private int maxDevices = 6;
+    private double priorityOneProbability = 0.5;
+    private int pidRange = 100;              // PrManager's process table holds PIDs 0-99
+    private int ownerClasses = 0;            // > 0: uniform O= owner class per job
+    private double ioProbability = 0;        // > 0: share of jobs with B= CPU/I-O bursts
+    private int ioDevices = 2;
+    private long maxIoBurst = 50;
+
+    // Cursor state
+    private char type;
+    private long time;
+    private long PID;
+    private long memoryReq;
+    private int devReq;
+    private long burstTime;
+    private int priority;
+    private int ownerClass;
+    private long[] bursts;                   // null = no B= field
+    private int[] burstDevices;              // device of each I/O burst
+
+    private int epoch;
+    private long arrivalsLeft;
+    private long clock;
+    private long nextDisplay;
+    private long nextPID;
+    private boolean inBurst;
+    private boolean epochOpen;
+    private boolean finished;
+
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    /** Restart the trace from the beginning (same seed, current settings). */
+    public void reset() {
+        random = new SplittableRandom(seed);
+        epoch = 0;
+        arrivalsLeft = 0;
+        clock = 0;
+        nextPID = 0;
+        inBurst = false;
+        epochOpen = false;
+        finished = false;
+    }
+
+    // Settings
+    public void setSystem(long memorySize, int devices, int schedulerType) {
+        this.memorySize = memorySize;
+        this.devices = devices;
+        this.schedulerType = schedulerType;
+    }
+
+    public void setEpochs(int epochs, long arrivalsPerEpoch, long epochGap) {
+        this.epochs = epochs;
+        this.arrivalsPerEpoch = arrivalsPerEpoch;
+        this.epochGap = epochGap;
+    }
+
+    public void setDisplayInterval(long displayInterval) { this.displayInterval = displayInterval; }
+    public void setMeanInterarrival(double mean) { this.meanInterarrival = mean; }
+
+    public void setBursty(boolean bursty, double rateFactor, double switchProbability) {
+        this.bursty = bursty;
+        this.burstRateFactor = rateFactor;
+        this.burstSwitchProbability = switchProbability;
+    }
+
+    public void setBurstTime(double paretoAlpha, long minBurst, long maxBurst) {
+        this.paretoAlpha = paretoAlpha;
+        this.minBurst = minBurst;
+        this.maxBurst = maxBurst;
+    }
+
+    public void setMemoryRange(long minMemory, long maxMemory) {
+        this.minMemory = minMemory;
+        this.maxMemory = maxMemory;
+    }
+
+    public void setMaxDevices(int maxDevices) { this.maxDevices = maxDevices; }
+    public void setPriorityOneProbability(double p) { this.priorityOneProbability = p; }
+    public void setPidRange(int pidRange) { this.pidRange = pidRange; }
+    public void setOwnerClasses(int ownerClasses) { this.ownerClasses = ownerClasses; }
+
+    /**
+     * Give a share of the jobs 1-3 I/O bursts of 1..maxIoBurst on devices 0..ioDevices-1;
+     * their CPU time (R=) is split at random between the CPU bursts.
+     */
+    public void setIoBursts(double probability, int ioDevices, long maxIoBurst) {
+        this.ioProbability = probability;
+        this.ioDevices = ioDevices;
+        this.maxIoBurst = maxIoBurst;
+    }
+
+    /**
+     * Advance to the next event. Returns false when the trace is done.
+     */
+    public boolean next() {
+        if (finished) return false;
+
+        if (!epochOpen) {
+            if (epoch == epochs) {
+                finished = true;
+                return false;
+            }
+            if (epoch > 0) clock += epochGap;
+            epochOpen = true;
+            arrivalsLeft = arrivalsPerEpoch;
+            nextDisplay = displayInterval > 0 ? clock + displayInterval : Long.MAX_VALUE;
+            type = CONFIG;
+            time = clock;
+            return true;
+        }
+
+        if (arrivalsLeft == 0) {
+            // Final display of the epoch, far enough out for the work to drain
+            epochOpen = false;
+            epoch++;
+            clock += epochGap / 2;
+            type = DISPLAY;
+            time = clock;
+            return true;
+        }
+
+        long arrival = clock + nextInterarrival();
+        if (nextDisplay <= arrival) {
+            type = DISPLAY;
+            time = nextDisplay;
+            clock = Math.max(clock, nextDisplay);
+            nextDisplay += displayInterval;
+            return true;
+        }
+
+        clock = arrival;
+        arrivalsLeft--;
+        type = ARRIVAL;
+        time = clock;
+        PID = nextPID;
+        nextPID = (nextPID + 1) % pidRange;
+        memoryReq = minMemory + (long) (random.nextDouble() * (maxMemory - minMemory + 1));
+        devReq = random.nextInt(maxDevices + 1);
+        burstTime = nextBurst();
+        priority = random.nextDouble() < priorityOneProbability ? 1 : 2;
+        // Drawn only when enabled, so traces without classes keep their seeds
+        ownerClass = ownerClasses > 0 ? random.nextInt(ownerClasses) : priority;
+        bursts = ioProbability > 0 && random.nextDouble() < ioProbability ? nextBursts() : null;
+        return true;
+    }
+
+    private long nextInterarrival() {
+        double mean = meanInterarrival;
+        if (bursty) {
+            if (random.nextDouble() < burstSwitchProbability) {
+                inBurst = !inBurst;
+            }
+            if (inBurst) mean /= burstRateFactor;
+        }
+        // Exponential gap, rounded to whole time units
+        return Math.round(-mean * Math.log(1.0 - random.nextDouble()));
+    }
+
+    // cpu, io, cpu, ... with the CPU parts summing to burstTime
+    private long[] nextBursts() {
+        int ios = (int) Math.min(1 + random.nextInt(3), burstTime - 1);
+        if (ios <= 0) return null;
+        long[] seq = new long[2 * ios + 1];
+        burstDevices = new int[ios];
+        long left = burstTime;
+        for (int k = 0; k < ios; k++) {
+            long cpu = 1 + (long) (random.nextDouble() * (left - (ios - k)));
+            cpu = Math.min(cpu, left - (ios - k));
+            seq[2 * k] = cpu;
+            left -= cpu;
+            long io = 1 + (long) (random.nextDouble() * maxIoBurst);
+            seq[2 * k + 1] = io;
+            burstDevices[k] = random.nextInt(ioDevices);
+        }
+        seq[2 * ios] = left;
+        return seq;
+    }
+
+    // Bounded Pareto by inverse transform
+    private long nextBurst() {
+        double u = random.nextDouble();
+        double lo = Math.pow(minBurst, paretoAlpha);
+        double hi = Math.pow(maxBurst, paretoAlpha);
+        double x = Math.pow(-(u * hi - u * lo - hi) / (hi * lo), -1.0 / paretoAlpha);
+        return Math.max(minBurst, Math.min(maxBurst, Math.round(x)));
+    }
+
+    // Current event
+    public char getType() { return type; }
+    public long getTime() { return time; }
+    public long getPID() { return PID; }
+    public long getMemoryReq() { return memoryReq; }
+    public int getDevReq() { return devReq; }
+    public long getBurstTime() { return burstTime; }
+    public int getPriority() { return priority; }
+    public int getOwnerClass() { return ownerClass; }
+    public long[] getBursts() { return bursts; }
+    public int[] getBurstDevices() { return bursts == null ? null : burstDevices; }
+    public long getMemorySize() { return memorySize; }
+    public int getDevices() { return devices; }
+    public int getSchedulerType() { return schedulerType; }
+
+    /**
+     * Format the current event as an input line (same format as input*.txt).
+     */
+    public void appendLine(StringBuilder line) {
+        switch (type) {
+            case CONFIG:
+                line.append("C ").append(time).append(" M=").append(memorySize)
+                        .append(" S=").append(devices).append(" SCHED=").append(schedulerType);
+                break;
+            case ARRIVAL:
+                line.append("A ").append(time).append(" J=").append(PID)
+                        .append(" M=").append(memoryReq).append(" S=").append(devReq)
+                        .append(" R=").append(burstTime).append(" P=").append(priority);
+                if (ownerClasses > 0) line.append(" O=").append(ownerClass);
+                if (bursts != null) {
+                    line.append(" B=");
+                    for (int k = 0; k < bursts.length; k++) {
+                        if (k > 0) line.append(',');
+                        if (k % 2 == 0) {
+                            line.append(bursts[k]);
+                        } else {
+                            line.append(bursts[k]).append('@').append(burstDevices[k / 2]);
+                        }
+                    }
+                }
+                break;
+            default:
+                line.append("D ").append(time);
+        }
+    }
+
+    /**
+     * Stream the rest of the trace as C/A/D text. Returns the number of events.
+     */
+    public long writeTo(Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        long count = 0;
+        while (next()) {
+            line.setLength(0);
+            appendLine(line);
+            line.append('\n');
+            out.append(line);
+            count++;
+        }
+        out.flush();
+        return count;
+    }
+
+    /**
+     * Usage: java os.simulator.WorkloadGenerator <output file> <arrivals> [seed]
+     *        [--epochs N] [--bursty] [--sched 1-4] [--display T] [--classes N] [--io P]
+     */
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        if (args.length < 2) {
+            System.out.println("Usage: WorkloadGenerator <output file> <arrivals> [seed] "
+                    + "[--epochs N] [--bursty] [--sched 1-4] [--display T] [--classes N] [--io P]");
+            return;
+        }
+
+        long arrivals = Long.parseLong(args[1]);
+        long seed = 1;
+        int epochs = 1;
+        boolean bursty = false;
+        int sched = 1;
+        long display = 0;
+        int classes = 0;
+        double io = 0;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("--epochs") && i + 1 < args.length) {
+                epochs = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--bursty")) {
+                bursty = true;
+            } else if (args[i].equals("--sched") && i + 1 < args.length) {
+                sched = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--display") && i + 1 < args.length) {
+                display = Long.parseLong(args[++i]);
+            } else if (args[i].equals("--classes") && i + 1 < args.length) {
+                classes = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--io") && i + 1 < args.length) {
+                io = Double.parseDouble(args[++i]);
+            } else {
+                seed = Long.parseLong(args[i]);
+            }
+        }
+
+        WorkloadGenerator generator = new WorkloadGenerator(seed);
+        generator.setSystem(200, 12, sched);
+        generator.setEpochs(epochs, arrivals, 1000);
+        generator.setBursty(bursty, 10.0, 0.05);
+        generator.setDisplayInterval(display);
+        generator.setOwnerClasses(classes);
+        generator.setIoBursts(io, 2, 50);
+
+        try (Writer out = new BufferedWriter(new FileWriter(args[0]), 1 << 16)) {
+            long count = generator.writeTo(out);
+            System.out.println("Generated " + count + " events into " + args[0]);
+        }
+    }
+}